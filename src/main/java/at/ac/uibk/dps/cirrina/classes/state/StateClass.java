@@ -4,6 +4,7 @@ import at.ac.uibk.dps.cirrina.csml.description.context.ContextDescription;
 import at.ac.uibk.dps.cirrina.execution.object.action.Action;
 import at.ac.uibk.dps.cirrina.execution.object.action.ActionGraph;
 import at.ac.uibk.dps.cirrina.execution.object.action.ActionGraphBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
 import at.ac.uibk.dps.cirrina.io.plantuml.Exportable;
 import at.ac.uibk.dps.cirrina.io.plantuml.PlantUmlVisitor;
 import jakarta.annotation.Nullable;
@@ -75,6 +76,26 @@ public final class StateClass implements Exportable {
    */
   private final ActionGraph afterActionGraph;
 
+  /**
+   * The entry actions in order of execution, computed once from the entry action graph.
+   */
+  private final List<Action> entryActions;
+
+  /**
+   * The exit actions in order of execution, computed once from the exit action graph.
+   */
+  private final List<Action> exitActions;
+
+  /**
+   * The while actions in order of execution, computed once from the while action graph.
+   */
+  private final List<Action> whileActions;
+
+  /**
+   * The timeout actions in order of execution, computed once from the after action graph.
+   */
+  private final List<TimeoutAction> timeoutActions;
+
   /**
    * Initializes this state class instance.
    *
@@ -95,6 +116,11 @@ public final class StateClass implements Exportable {
     this.whileActionGraph = ActionGraphBuilder.from(baseParameters.whileActions).build();
     this.afterActionGraph = ActionGraphBuilder.from(baseParameters.afterActions).build();
 
+    this.entryActions = entryActionGraph.getActionsInExecutionOrder();
+    this.exitActions = exitActionGraph.getActionsInExecutionOrder();
+    this.whileActions = whileActionGraph.getActionsInExecutionOrder();
+    this.timeoutActions = toTimeoutActions(afterActionGraph.getActionsInExecutionOrder());
+
     this.abstractt = baseParameters.abstractt;
     this.virtual = baseParameters.virtual;
   }
@@ -121,12 +147,29 @@ public final class StateClass implements Exportable {
     this.whileActionGraph = ActionGraphBuilder.extend(new ActionGraph(baseState.whileActionGraph), childParameters.whileActions).build();
     this.afterActionGraph = ActionGraphBuilder.extend(new ActionGraph(baseState.afterActionGraph), childParameters.afterActions).build();
 
+    this.entryActions = entryActionGraph.getActionsInExecutionOrder();
+    this.exitActions = exitActionGraph.getActionsInExecutionOrder();
+    this.whileActions = whileActionGraph.getActionsInExecutionOrder();
+    this.timeoutActions = toTimeoutActions(afterActionGraph.getActionsInExecutionOrder());
+
     this.abstractt = childParameters.abstractt;
 
     // Ensure overridden abstract states are virtual if they are no longer abstract, so they can be further overridden
     this.virtual = (baseState.abstractt && !abstractt) || baseState.virtual;
   }
 
+  /**
+   * Converts after actions to timeout actions, after actions are required to be timeout actions.
+   *
+   * @param afterActions After actions.
+   * @return Immutable list of timeout actions.
+   */
+  private static List<TimeoutAction> toTimeoutActions(List<Action> afterActions) {
+    return afterActions.stream()
+        .map(action -> (TimeoutAction) action)
+        .toList();
+  }
+
   /**
    * Return a string representation.
    *
@@ -246,6 +289,42 @@ public final class StateClass implements Exportable {
     return afterActionGraph;
   }
 
+  /**
+   * Returns the entry actions in order of execution.
+   *
+   * @return Immutable list of entry actions.
+   */
+  public List<Action> getEntryActions() {
+    return entryActions;
+  }
+
+  /**
+   * Returns the exit actions in order of execution.
+   *
+   * @return Immutable list of exit actions.
+   */
+  public List<Action> getExitActions() {
+    return exitActions;
+  }
+
+  /**
+   * Returns the while actions in order of execution.
+   *
+   * @return Immutable list of while actions.
+   */
+  public List<Action> getWhileActions() {
+    return whileActions;
+  }
+
+  /**
+   * Returns the timeout actions in order of execution.
+   *
+   * @return Immutable list of timeout actions.
+   */
+  public List<TimeoutAction> getTimeoutActions() {
+    return timeoutActions;
+  }
+
   /**
    * Returns the actions of a specific type.
    *
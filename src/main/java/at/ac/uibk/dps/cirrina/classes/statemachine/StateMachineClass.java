@@ -12,8 +12,11 @@ import at.ac.uibk.dps.cirrina.execution.object.guard.Guard;
 import at.ac.uibk.dps.cirrina.io.plantuml.Exportable;
 import at.ac.uibk.dps.cirrina.io.plantuml.PlantUmlVisitor;
 import jakarta.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -62,6 +65,12 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
    */
   private final List<Action> namedActions;
 
+  /**
+   * Transition dispatch tables per state, built once the state machine class is complete. Null if not built yet or if the graph has been
+   * modified since.
+   */
+  private @Nullable Map<StateClass, TransitionDispatchTable> dispatchTables = null;
+
   /**
    * Initializes this state machine class instance.
    *
@@ -98,6 +107,63 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
     visitor.visit(this);
   }
 
+  /**
+   * Adds a transition between two states, invalidates the transition dispatch tables.
+   *
+   * @param sourceVertex Source state.
+   * @param targetVertex Target state.
+   * @param e            Transition.
+   * @return True if the transition was added, otherwise false.
+   */
+  @Override
+  public boolean addEdge(StateClass sourceVertex, StateClass targetVertex, TransitionClass e) {
+    dispatchTables = null;
+
+    return super.addEdge(sourceVertex, targetVertex, e);
+  }
+
+  /**
+   * Removes a transition, invalidates the transition dispatch tables.
+   *
+   * @param e Transition.
+   * @return True if the transition was removed, otherwise false.
+   */
+  @Override
+  public boolean removeEdge(TransitionClass e) {
+    dispatchTables = null;
+
+    return super.removeEdge(e);
+  }
+
+  /**
+   * Builds the transition dispatch tables, indexing the outgoing transitions of every state by event name.
+   * <p>
+   * Expected to be called once the graph is complete, any later modification of the graph invalidates the tables.
+   */
+  void buildDispatchTables() {
+    final var tables = new HashMap<StateClass, TransitionDispatchTable>();
+
+    for (final var stateClass : vertexSet()) {
+      final var onTransitions = new HashMap<String, List<OnTransitionClass>>();
+      final var alwaysTransitions = new ArrayList<TransitionClass>();
+
+      // Outgoing transitions are indexed in graph order, which is the order of declaration
+      for (final var transition : outgoingEdgesOf(stateClass)) {
+        if (transition instanceof OnTransitionClass onTransition) {
+          onTransitions.computeIfAbsent(onTransition.getEventName(), eventName -> new ArrayList<>()).add(onTransition);
+        } else {
+          alwaysTransitions.add(transition);
+        }
+      }
+
+      onTransitions.replaceAll((eventName, transitions) -> List.copyOf(transitions));
+
+      tables.put(stateClass, new TransitionDispatchTable(Map.copyOf(onTransitions), List.copyOf(alwaysTransitions)));
+    }
+
+    dispatchTables = tables;
+  }
+
   /**
    * Returns a state by its name. If not one state is known with the supplied name, empty is returned.
    *
@@ -125,6 +191,12 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
    * @return The list of on-transitions.
    */
   public List<OnTransitionClass> findOnTransitionsFromStateByEventName(StateClass fromStateClass, String eventName) {
+    final var dispatchTable = findDispatchTable(fromStateClass);
+
+    if (dispatchTable != null) {
+      return dispatchTable.onTransitions().getOrDefault(eventName, List.of());
+    }
+
     return outgoingEdgesOf(fromStateClass).stream()
         .filter(transition -> transition instanceof OnTransitionClass)
         .map(transition -> (OnTransitionClass) transition)
@@ -139,11 +211,29 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
    * @return The list of always-transitions.
    */
   public List<TransitionClass> findAlwaysTransitionsFromState(StateClass fromStateClass) {
+    final var dispatchTable = findDispatchTable(fromStateClass);
+
+    if (dispatchTable != null) {
+      return dispatchTable.alwaysTransitions();
+    }
+
     return outgoingEdgesOf(fromStateClass).stream()
         .filter(transition -> !(transition instanceof OnTransitionClass))
         .toList();
   }
 
+  /**
+   * Returns the transition dispatch table of a state or null if the dispatch tables are not built.
+   *
+   * @param stateClass State.
+   * @return Transition dispatch table or null.
+   */
+  private @Nullable TransitionDispatchTable findDispatchTable(StateClass stateClass) {
+    final var tables = dispatchTables;
+
+    return tables == null ? null : tables.get(stateClass);
+  }
+
   /**
    * Returns a guard by its name. If not one guard is known with the supplied name, empty is returned.
    *
@@ -331,4 +421,15 @@ public final class StateMachineClass extends DirectedPseudograph<StateClass, Tra
                     List<StateMachineClass> nestedStateMachineClasses) {
 
   }
+
+  /**
+   * Transition dispatch table of a state.
+   *
+   * @param onTransitions     On-transitions by event name.
+   * @param alwaysTransitions Always-transitions.
+   */
+  private record TransitionDispatchTable(Map<String, List<OnTransitionClass>> onTransitions,
+                                         List<TransitionClass> alwaysTransitions) {
+
+  }
 }
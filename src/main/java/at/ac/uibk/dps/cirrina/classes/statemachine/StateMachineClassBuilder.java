@@ -266,6 +266,9 @@ public final class StateMachineClassBuilder {
           processTransitions.accept(stateClass.always);
         });
 
+    // The graph is complete, index the transitions for dispatching
+    stateMachine.buildDispatchTables();
+
     // Add the created state machine as a known state machine in this builder
     knownStateMachineClasses.add(stateMachine);
 
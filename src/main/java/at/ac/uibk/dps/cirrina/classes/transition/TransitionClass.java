@@ -46,6 +46,11 @@ public class TransitionClass extends DefaultEdge implements Exportable {
    */
   private final ActionGraph actionGraph;
 
+  /**
+   * Actions in order of execution, computed once from the action graph.
+   */
+  private final List<Action> actions;
+
   /**
    * Initializes this transition object.
    *
@@ -60,6 +65,7 @@ public class TransitionClass extends DefaultEdge implements Exportable {
     this.elseTargetStateName = elseTargetStateName;
 
     this.actionGraph = ActionGraphBuilder.from(actions).build();
+    this.actions = actionGraph.getActionsInExecutionOrder();
   }
 
   /**
@@ -132,6 +138,15 @@ public class TransitionClass extends DefaultEdge implements Exportable {
     return actionGraph;
   }
 
+  /**
+   * Returns the actions in order of execution.
+   *
+   * @return Immutable list of actions.
+   */
+  public List<Action> getActions() {
+    return actions;
+  }
+
   /**
    * Returns the name of the target state.
    *
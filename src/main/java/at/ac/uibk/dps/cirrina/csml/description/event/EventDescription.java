@@ -4,6 +4,7 @@ import at.ac.uibk.dps.cirrina.csml.description.context.ContextVariableDescriptio
 import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Optional;
 
 public final class EventDescription {
 
@@ -14,4 +15,12 @@ public final class EventDescription {
   public EventChannel channel;
 
   public List<ContextVariableDescription> data = List.of();
+
+  /**
+   * The optional time to live in milliseconds.
+   * <p>
+   * A raised event that is not handled within its time to live, counted from when it was raised, is dropped by the receiving state machine.
+   * </p>
+   */
+  public Optional<Long> ttl = Optional.empty();
 }
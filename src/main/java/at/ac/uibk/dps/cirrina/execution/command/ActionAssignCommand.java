@@ -6,7 +6,6 @@ import at.ac.uibk.dps.cirrina.execution.object.action.AssignAction;
 import at.ac.uibk.dps.cirrina.execution.object.expression.Expression;
 import at.ac.uibk.dps.cirrina.utils.Time;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -27,8 +26,6 @@ public final class ActionAssignCommand extends ActionCommand {
   public List<ActionCommand> execute() throws UnsupportedOperationException {
     final var start = Time.timeInMillisecondsSinceStart();
 
-    final var commands = new ArrayList<ActionCommand>();
-
     try {
       final var variable = assignAction.getVariable();
       final var variableName = variable.name();
@@ -66,6 +63,6 @@ public final class ActionAssignCommand extends ActionCommand {
       logger.error("Data assignment failed: {}", e.getMessage());
     }
 
-    return commands;
+    return List.of();
   }
 }
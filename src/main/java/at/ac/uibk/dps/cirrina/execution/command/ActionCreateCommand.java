@@ -5,7 +5,6 @@ import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_DAT
 import at.ac.uibk.dps.cirrina.execution.object.action.CreateAction;
 import at.ac.uibk.dps.cirrina.execution.object.expression.Expression;
 import at.ac.uibk.dps.cirrina.utils.Time;
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,8 +25,6 @@ public final class ActionCreateCommand extends ActionCommand {
   public List<ActionCommand> execute() throws UnsupportedOperationException {
     final var start = Time.timeInMillisecondsSinceStart();
 
-    final var commands = new ArrayList<ActionCommand>();
-
     try {
       final var variable = createAction.getVariable();
       final var variableName = variable.name();
@@ -74,6 +71,6 @@ public final class ActionCreateCommand extends ActionCommand {
       logger.error("Data creation failed: {}", e.getMessage());
     }
 
-    return commands;
+    return List.of();
   }
 }
@@ -7,10 +7,11 @@ import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_RESP
 import at.ac.uibk.dps.cirrina.execution.object.action.InvokeAction;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventListener;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementation;
 import at.ac.uibk.dps.cirrina.utils.Time;
-import java.util.ArrayList;
+import jakarta.annotation.Nullable;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -30,16 +31,20 @@ public final class ActionInvokeCommand extends ActionCommand {
 
   private final InvokeAction invokeAction;
 
+  private final @Nullable Event raisingEvent;
+
   /**
    * Initializes this action invoke commands.
    *
    * @param executionContext Execution context.
    * @param invokeAction     Invoke action.
+   * @param raisingEvent     The raising event or null.
    */
-  ActionInvokeCommand(ExecutionContext executionContext, InvokeAction invokeAction) {
+  ActionInvokeCommand(ExecutionContext executionContext, InvokeAction invokeAction, @Nullable Event raisingEvent) {
     super(executionContext);
 
     this.invokeAction = invokeAction;
+    this.raisingEvent = raisingEvent;
   }
 
   @Override
@@ -50,8 +55,6 @@ public final class ActionInvokeCommand extends ActionCommand {
     try {
       final var serviceImplementation = selectServiceImplementation();
 
-      final var commands = new ArrayList<ActionCommand>();
-
       final var extent = executionContext.scope().getExtent();
       final var eventListener = executionContext.eventListener();
 
@@ -69,7 +72,7 @@ public final class ActionInvokeCommand extends ActionCommand {
             measurePerformance(start, serviceImplementation);
           });
 
-      return commands;
+      return List.of();
     } catch (Exception e) {
       throw new UnsupportedOperationException("Could not execute invoke action", e);
     }
@@ -169,7 +172,6 @@ public final class ActionInvokeCommand extends ActionCommand {
         ));
 
     // Measure inclusive response time
-    final var raisingEvent = executionContext.raisingEvent();
     if (raisingEvent != null) {
       gauges.getGauge(GAUGE_EVENT_RESPONSE_TIME_INCLUSIVE).set(
           Time.timeInMillisecondsSinceEpoch() - raisingEvent.getCreatedTime(),
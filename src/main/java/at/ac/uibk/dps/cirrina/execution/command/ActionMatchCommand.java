@@ -1,6 +1,8 @@
 package at.ac.uibk.dps.cirrina.execution.command;
 
 import at.ac.uibk.dps.cirrina.execution.object.action.MatchAction;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import jakarta.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
@@ -12,15 +14,19 @@ public final class ActionMatchCommand extends ActionCommand {
 
   private final MatchAction matchAction;
 
-  ActionMatchCommand(ExecutionContext executionContext, MatchAction matchAction) {
+  private final @Nullable Event raisingEvent;
+
+  ActionMatchCommand(ExecutionContext executionContext, MatchAction matchAction, @Nullable Event raisingEvent) {
     super(executionContext);
 
     this.matchAction = matchAction;
+    this.raisingEvent = raisingEvent;
   }
 
   @Override
   public List<ActionCommand> execute() throws UnsupportedOperationException {
-    final var commands = new ArrayList<ActionCommand>();
+    // Allocated lazily, most match actions have a single matching case at most
+    List<ActionCommand> commands = List.of();
 
     try {
       final var extent = executionContext.scope().getExtent();
@@ -35,7 +41,11 @@ public final class ActionMatchCommand extends ActionCommand {
 
         // In case the case condition matches, add the case action
         if (conditionValue == caseValue) {
-          final var command = commandFactory.createActionCommand(caseAction);
+          final var command = commandFactory.createActionCommand(caseAction, raisingEvent);
+
+          if (commands.isEmpty()) {
+            commands = new ArrayList<>();
+          }
 
           commands.add(command);
         }
@@ -4,7 +4,6 @@ import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.action.RaiseAction;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.LogManager;
@@ -26,8 +25,6 @@ public final class ActionRaiseCommand extends ActionCommand {
 
   @Override
   public List<ActionCommand> execute() throws UnsupportedOperationException {
-    final var commands = new ArrayList<ActionCommand>();
-
     try {
       final var event = raiseAction.getEvent();
 
@@ -48,6 +45,6 @@ public final class ActionRaiseCommand extends ActionCommand {
       logger.error("Data creation failed: {}", e.getMessage());
     }
 
-    return commands;
+    return List.of();
   }
 }
@@ -7,16 +7,34 @@ import at.ac.uibk.dps.cirrina.execution.object.action.InvokeAction;
 import at.ac.uibk.dps.cirrina.execution.object.action.MatchAction;
 import at.ac.uibk.dps.cirrina.execution.object.action.RaiseAction;
 import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CommandFactory {
 
-  private ExecutionContext executionContext;
+  private final ExecutionContext executionContext;
 
   public CommandFactory(ExecutionContext executionContext) {
     this.executionContext = executionContext;
   }
 
   public ActionCommand createActionCommand(Action action) {
+    return createActionCommand(action, null);
+  }
+
+  /**
+   * Creates an action command.
+   * <p>
+   * The raising event is not part of the execution context, which allows a command factory to be reused for the lifetime of a scope.
+   *
+   * @param action       Action.
+   * @param raisingEvent The raising event or null.
+   * @return Action command.
+   * @throws IllegalArgumentException If the action is not known.
+   */
+  public ActionCommand createActionCommand(Action action, @Nullable Event raisingEvent) {
     switch (action) {
       case AssignAction assignAction -> {
         return new ActionAssignCommand(executionContext, assignAction);
@@ -25,10 +43,10 @@ public class CommandFactory {
         return new ActionCreateCommand(executionContext, createAction);
       }
       case InvokeAction invokeAction -> {
-        return new ActionInvokeCommand(executionContext, invokeAction);
+        return new ActionInvokeCommand(executionContext, invokeAction, raisingEvent);
       }
       case MatchAction matchAction -> {
-        return new ActionMatchCommand(executionContext, matchAction);
+        return new ActionMatchCommand(executionContext, matchAction, raisingEvent);
       }
       case RaiseAction raiseAction -> {
         return new ActionRaiseCommand(executionContext, raiseAction);
@@ -39,4 +57,26 @@ public class CommandFactory {
       default -> throw new IllegalArgumentException("Unexpected action");
     }
   }
+
+  /**
+   * Creates action commands for a list of actions, maintaining the order of the actions.
+   *
+   * @param actions      Actions.
+   * @param raisingEvent The raising event or null.
+   * @return Action commands.
+   * @throws IllegalArgumentException If an action is not known.
+   */
+  public List<ActionCommand> createActionCommands(List<Action> actions, @Nullable Event raisingEvent) {
+    if (actions.isEmpty()) {
+      return List.of();
+    }
+
+    final var actionCommands = new ArrayList<ActionCommand>(actions.size());
+
+    for (int i = 0; i < actions.size(); ++i) {
+      actionCommands.add(createActionCommand(actions.get(i), raisingEvent));
+    }
+
+    return actionCommands;
+  }
 }
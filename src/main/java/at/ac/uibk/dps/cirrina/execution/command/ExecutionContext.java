@@ -1,17 +1,14 @@
 package at.ac.uibk.dps.cirrina.execution.command;
 
-import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventListener;
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachineEventHandler;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.tracing.Counters;
 import at.ac.uibk.dps.cirrina.tracing.Gauges;
-import jakarta.annotation.Nullable;
 import java.util.Objects;
 
 public record ExecutionContext(
     Scope scope,
-    @Nullable Event raisingEvent,
     ServiceImplementationSelector serviceImplementationSelector,
     StateMachineEventHandler eventHandler,
     EventListener eventListener,
@@ -30,12 +27,12 @@ public record ExecutionContext(
   }
 
   public ExecutionContext withScope(Scope scope) {
-    return new ExecutionContext(scope, raisingEvent, serviceImplementationSelector, eventHandler,
+    return new ExecutionContext(scope, serviceImplementationSelector, eventHandler,
         eventListener, gauges, counters, isWhile);
   }
 
   public ExecutionContext withIsWhile(boolean isWhile) {
-    return new ExecutionContext(scope, raisingEvent, serviceImplementationSelector, eventHandler,
+    return new ExecutionContext(scope, serviceImplementationSelector, eventHandler,
         eventListener, gauges, counters, isWhile);
   }
 }
@@ -1,8 +1,10 @@
 package at.ac.uibk.dps.cirrina.execution.object.action;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.SimpleDirectedGraph;
+import org.jgrapht.traverse.TopologicalOrderIterator;
 
 /**
  * Abstract action graph, contains actions as vertices and edges indicating the order of execution.
@@ -57,4 +59,19 @@ public final class ActionGraph extends SimpleDirectedGraph<Action, DefaultEdge>
   public List<Action> getActions() {
     return vertexSet().stream().toList();
   }
+
+  /**
+   * Returns the actions contained in this action graph in order of execution, i.e., topologically sorted.
+   * <p>
+   * The order is computed by traversing this action graph, the returned list is meant to be computed once and retained.
+   *
+   * @return Immutable list of actions in order of execution.
+   */
+  public List<Action> getActionsInExecutionOrder() {
+    final var actions = new ArrayList<Action>(vertexSet().size());
+
+    new TopologicalOrderIterator<>(this).forEachRemaining(actions::add);
+
+    return List.copyOf(actions);
+  }
 }
@@ -8,6 +8,18 @@ import java.util.List;
  */
 public abstract class Context implements AutoCloseable {
 
+  /**
+   * Sentinel value returned by a lookup of a context variable that does not exist.
+   *
+   * @see #lookup(String)
+   */
+  public static final Object ABSENT = new Object() {
+    @Override
+    public String toString() {
+      return "ABSENT";
+    }
+  };
+
   private final boolean isLocal;
 
   /**
@@ -28,6 +40,23 @@ public abstract class Context implements AutoCloseable {
    */
   public abstract Object get(String name) throws IOException;
 
+  /**
+   * Looks up a context variable, without throwing if the context variable does not exist.
+   * <p>
+   * The default implementation relies on {@link #get(String)}, implementations should override this method to avoid constructing an
+   * exception for every miss.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable value or {@link #ABSENT} if the context variable does not exist or could not be retrieved.
+   */
+  public Object lookup(String name) {
+    try {
+      return get(name);
+    } catch (IOException e) {
+      return ABSENT;
+    }
+  }
+
   /**
    * Creates a context variable.
    *
@@ -0,0 +1,149 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Event data context, a read-only overlay that exposes the data of an event as prefixed context variables.
+ * <p>
+ * Variables are resolved directly against the bound event data, no prefixed names are built and no values are copied. An event data context
+ * is meant to be reused, the event data is bound for the duration of handling an event.
+ * <p>
+ * An event data context is not thread-safe.
+ */
+public final class EventDataContext extends Context {
+
+  /**
+   * Prefix of the event data variable names.
+   */
+  private final String prefix;
+
+  /**
+   * Currently bound event data.
+   */
+  private List<ContextVariable> data = List.of();
+
+  /**
+   * Initializes an event data context.
+   *
+   * @param prefix Prefix of the event data variable names.
+   */
+  public EventDataContext(String prefix) {
+    super(true);
+
+    this.prefix = prefix;
+  }
+
+  /**
+   * Binds event data to this context.
+   *
+   * @param data Event data.
+   */
+  public void bind(List<ContextVariable> data) {
+    this.data = data;
+  }
+
+  /**
+   * Unbinds the currently bound event data from this context.
+   */
+  public void unbind() {
+    this.data = List.of();
+  }
+
+  /**
+   * Retrieve a context variable.
+   *
+   * @param name Name of the context variable.
+   * @return The retrieved context variable.
+   * @throws IOException If a variable with the same does not exist.
+   */
+  @Override
+  public Object get(String name) throws IOException {
+    final var value = lookup(name);
+
+    if (value == ABSENT) {
+      throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+    }
+
+    return value;
+  }
+
+  /**
+   * Looks up a context variable, without throwing if the context variable does not exist.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable value or {@link #ABSENT} if the context variable does not exist.
+   */
+  @Override
+  public Object lookup(String name) {
+    if (name.startsWith(prefix)) {
+      final var prefixLength = prefix.length();
+      final var nameLength = name.length() - prefixLength;
+
+      for (int i = 0; i < data.size(); ++i) {
+        final var variable = data.get(i);
+        final var variableName = variable.name();
+
+        if (variableName.length() == nameLength && name.regionMatches(prefixLength, variableName, 0, nameLength)) {
+          return variable.value();
+        }
+      }
+    }
+
+    return ABSENT;
+  }
+
+  /**
+   * Creates a context variable, not supported.
+   *
+   * @param name  Name of the context variable.
+   * @param value Value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException Always, the event data context is read-only.
+   */
+  @Override
+  public int create(String name, Object value) throws IOException {
+    throw new IOException("Cannot create variable '%s', the event data context is read-only".formatted(name));
+  }
+
+  /**
+   * Assigns to a context variable, not supported.
+   *
+   * @param name  Name of the context variable.
+   * @param value New value of the context variable.
+   * @return Byte size of stored data.
+   * @throws IOException Always, the event data context is read-only.
+   */
+  @Override
+  public int assign(String name, Object value) throws IOException {
+    throw new IOException("Cannot assign variable '%s', the event data context is read-only".formatted(name));
+  }
+
+  /**
+   * Deletes a context variable, not supported.
+   *
+   * @param name Name of the context variable.
+   * @throws IOException Always, the event data context is read-only.
+   */
+  @Override
+  public void delete(String name) throws IOException {
+    throw new IOException("Cannot delete variable '%s', the event data context is read-only".formatted(name));
+  }
+
+  /**
+   * Returns all context variables.
+   *
+   * @return Context variables.
+   */
+  @Override
+  public List<ContextVariable> getAll() {
+    return data.stream()
+        .map(variable -> new ContextVariable(prefix + variable.name(), variable.value()))
+        .toList();
+  }
+
+  @Override
+  public void close() {
+
+  }
+}
@@ -1,36 +1,50 @@
 package at.ac.uibk.dps.cirrina.execution.object.context;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.Stream;
 
+/**
+ * Extent, an ordered collection of contexts in which variables are resolved from the highest to the lowest priority context.
+ * <p>
+ * An extent is immutable, contexts are kept in an array in order of increasing priority. Extents are meant to be built once per scope and
+ * reused.
+ */
 public class Extent {
 
-  private List<Context> extent;
+  private static final Context[] EMPTY = new Context[0];
+
+  private final Context[] extent;
 
   public Extent() {
-    extent = new ArrayList<>();
+    extent = EMPTY;
   }
 
   public Extent(Context low) {
-    extent = List.of(low);
+    extent = new Context[]{low};
   }
 
   public Extent(Context low, Context high) {
-    extent = List.of(low, high);
+    extent = new Context[]{low, high};
   }
 
   public Extent(List<Context> low, Context high) {
-    extent = Stream.concat(
-            low.stream(),
-            Stream.of(high))
-        .toList();
+    extent = new Context[low.size() + 1];
+
+    for (int i = 0; i < low.size(); ++i) {
+      extent[i] = low.get(i);
+    }
+    extent[low.size()] = high;
+  }
+
+  private Extent(Context[] extent) {
+    this.extent = extent;
   }
 
   public int setOrCreate(String name, Object value) throws IOException {
-    final var last = extent.getLast();
+    final var last = getHigh();
 
     try {
       return last.assign(name, value);
@@ -42,7 +56,9 @@ public class Extent {
   public SetResult trySet(String name, Object value) throws IOException {
     IOException lastException = null;
 
-    for (final var context : extent.reversed()) {
+    for (int i = extent.length - 1; i >= 0; --i) {
+      final var context = extent[i];
+
       try {
         final var size = context.assign(name, value);
         return new SetResult(size, context);
@@ -59,29 +75,52 @@ public class Extent {
   }
 
   public Extent extend(Context high) {
-    return new Extent(extent, high);
+    final var extended = Arrays.copyOf(extent, extent.length + 1);
+    extended[extent.length] = high;
+
+    return new Extent(extended);
   }
 
   public Context getLow() {
-    return extent.getFirst();
+    if (extent.length == 0) {
+      throw new NoSuchElementException("The extent is empty");
+    }
+
+    return extent[0];
   }
 
   public Context getHigh() {
-    return extent.getLast();
+    if (extent.length == 0) {
+      throw new NoSuchElementException("The extent is empty");
+    }
+
+    return extent[extent.length - 1];
   }
 
   public Optional<Object> resolve(String name) {
-    return extent.reversed().stream()
-        .map(context -> {
-          try {
-            return Optional.ofNullable(context.get(name));
-          } catch (IOException e) {
-            return Optional.empty();
-          }
-        })
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .findFirst();
+    final var value = lookup(name);
+
+    return value == Context.ABSENT ? Optional.empty() : Optional.of(value);
+  }
+
+  /**
+   * Looks up a variable in the contexts of this extent, from the highest to the lowest priority context. Never throws for a variable that
+   * does not exist.
+   *
+   * @param name Name of the variable.
+   * @return The variable value or {@link Context#ABSENT} if no context contains the variable.
+   */
+  public Object lookup(String name) {
+    for (int i = extent.length - 1; i >= 0; --i) {
+      final var value = extent[i].lookup(name);
+
+      // Continue with the next lower priority context if not contained in this context
+      if (value != Context.ABSENT && value != null) {
+        return value;
+      }
+    }
+
+    return Context.ABSENT;
   }
 
   public record SetResult(int size, Context context) {
@@ -31,11 +31,26 @@ public class InMemoryContext extends Context {
    */
   @Override
   public Object get(String name) throws IOException {
-    if (!values.containsKey(name)) {
+    final var value = values.get(name);
+
+    if (value == null) {
       throw new IOException("A variable with the name '%s' does not exist".formatted(name));
     }
 
-    return values.get(name);
+    return value;
+  }
+
+  /**
+   * Looks up a context variable, without throwing if the context variable does not exist.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable value or {@link #ABSENT} if the context variable does not exist.
+   */
+  @Override
+  public Object lookup(String name) {
+    final var value = values.get(name);
+
+    return value == null ? ABSENT : value;
   }
 
   /**
@@ -84,12 +84,43 @@ public final class NatsContext extends Context implements AutoCloseable {
     try {
       var entry = keyValue.get(name);
 
+      // No entry is returned for keys that do not exist or have been deleted
+      if (entry == null || entry.getValue() == null) {
+        throw new IOException("A variable with the name '%s' does not exist".formatted(name));
+      }
+
       return fromBytes(entry.getValue());
     } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
       throw new IOException("Failed to retrieve the variable '%s'".formatted(name), e);
     }
   }
 
+  /**
+   * Looks up a context variable, without throwing if the context variable does not exist.
+   * <p>
+   * A failure to retrieve the variable is logged and treated as if the variable does not exist.
+   *
+   * @param name Name of the context variable.
+   * @return The context variable value or {@link #ABSENT} if the context variable does not exist or could not be retrieved.
+   */
+  @Override
+  public Object lookup(String name) {
+    try {
+      var entry = keyValue.get(name);
+
+      // No entry is returned for keys that do not exist or have been deleted
+      if (entry == null || entry.getValue() == null) {
+        return ABSENT;
+      }
+
+      return fromBytes(entry.getValue());
+    } catch (IOException | JetStreamApiException | UnsupportedOperationException e) {
+      logger.warn("Failed to retrieve the variable '{}': {}", name, e.getMessage());
+
+      return ABSENT;
+    }
+  }
+
   /**
    * Creates a context variable.
    * <p>
@@ -6,12 +6,16 @@ import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.utils.Time;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Event, resembles an event as it is sent to state machine instances.
+ * <p>
+ * The event data of a received event can be materialized lazily, the event data is then only decoded once it is first requested.
  */
 public final class Event {
 
@@ -36,9 +40,14 @@ public final class Event {
   private final EventChannel channel;
 
   /**
-   * Event data.
+   * Event data, materialized at most once.
    */
-  private final List<ContextVariable> data;
+  private final Supplier<List<ContextVariable>> data;
+
+  /**
+   * Time to live in milliseconds, counted from the created time. Zero if this event does not expire.
+   */
+  private final long ttlInMs;
 
   /**
    * Initializes this event. A random ID will be assigned to identify this event.
@@ -48,11 +57,24 @@ public final class Event {
    * @param data    Event data.
    */
   public Event(String name, EventChannel channel, List<ContextVariable> data) {
+    this(name, channel, data, 0);
+  }
+
+  /**
+   * Initializes this event with a time to live. A random ID will be assigned to identify this event.
+   *
+   * @param name    Event name.
+   * @param channel Event channel.
+   * @param data    Event data.
+   * @param ttlInMs Time to live in milliseconds, or zero if this event does not expire.
+   */
+  public Event(String name, EventChannel channel, List<ContextVariable> data, long ttlInMs) {
     this.createdTime = Time.timeInMillisecondsSinceEpoch();
     this.id = insecureUuid().toString();
     this.name = name;
     this.channel = channel;
-    this.data = data;
+    this.data = Suppliers.ofInstance(data);
+    this.ttlInMs = ttlInMs;
   }
 
   /**
@@ -68,7 +90,8 @@ public final class Event {
     this.id = id;
     this.name = name;
     this.channel = channel;
-    this.data = data;
+    this.data = Suppliers.ofInstance(data);
+    this.ttlInMs = 0;
   }
 
   /**
@@ -85,7 +108,29 @@ public final class Event {
     this.id = id;
     this.name = name;
     this.channel = channel;
-    this.data = data;
+    this.data = Suppliers.ofInstance(data);
+    this.ttlInMs = 0;
+  }
+
+  /**
+   * Initializes this event with lazily materialized event data.
+   * <p>
+   * The event data supplier is called at most once, when the event data is first requested.
+   *
+   * @param createdTime Event created time.
+   * @param id          Event ID.
+   * @param name        Event name.
+   * @param channel     Event channel.
+   * @param data        Event data supplier.
+   * @param ttlInMs     Time to live in milliseconds, or zero if this event does not expire.
+   */
+  public Event(double createdTime, String id, String name, EventChannel channel, Supplier<List<ContextVariable>> data, long ttlInMs) {
+    this.createdTime = createdTime;
+    this.id = id;
+    this.name = name;
+    this.channel = channel;
+    this.data = Suppliers.memoize(data);
+    this.ttlInMs = ttlInMs;
   }
 
   /**
@@ -108,11 +153,11 @@ public final class Event {
       }
     }
 
-    return new Event(event.getName(), event.getChannel(), data);
+    return new Event(event.getName(), event.getChannel(), data, event.getTtlInMs());
   }
 
   public Event withData(List<ContextVariable> data) {
-    return new Event(name, channel, data);
+    return new Event(name, channel, data, ttlInMs);
   }
 
   /**
@@ -132,7 +177,7 @@ public final class Event {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(id, name, channel, data);
+    return Objects.hash(id, name, channel, getData());
   }
 
   /**
@@ -172,11 +217,21 @@ public final class Event {
   }
 
   /**
-   * Returns the data.
+   * Returns the data, lazily materialized event data is materialized.
    *
    * @return Data.
+   * @throws UnsupportedOperationException If lazily materialized event data could not be decoded.
+   */
+  public List<ContextVariable> getData() throws UnsupportedOperationException {
+    return data.get();
+  }
+
+  /**
+   * Returns the time to live in milliseconds.
+   *
+   * @return Time to live in milliseconds, or zero if this event does not expire.
    */
-  public List<ContextVariable> getData() {
-    return data;
+  public long getTtlInMs() {
+    return ttlInMs;
   }
 }
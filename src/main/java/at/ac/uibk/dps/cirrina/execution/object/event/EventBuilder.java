@@ -45,12 +45,20 @@ public class EventBuilder {
    * Builds the event.
    *
    * @return The built event.
+   * @throws IllegalArgumentException If the time to live is negative.
    */
-  public Event build() {
+  public Event build() throws IllegalArgumentException {
+    final long ttlInMs = eventDescription.ttl.orElse(0L);
+
+    if (ttlInMs < 0) {
+      throw new IllegalArgumentException("The time to live of event '%s' cannot be negative".formatted(eventDescription.name));
+    }
+
     return new Event(
         eventDescription.name,
         eventDescription.channel,
-        buildVariableList(eventDescription.data)
+        buildVariableList(eventDescription.data),
+        ttlInMs
     );
   }
 }
@@ -0,0 +1,189 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Event deduplicator, detects events that are received more than once by their ID within a time window.
+ * <p>
+ * Event IDs are remembered in two generations of bloom filters, a current and a previous generation. Once the current generation is older
+ * than the window, or has reached its expected number of event IDs, it becomes the previous generation and the oldest generation is
+ * discarded. An event ID is therefore remembered for one window or until the expected number of event IDs per window were remembered
+ * after it, whichever comes first, and for at most two windows, using a fixed amount of memory. Rotating by count keeps the false
+ * positive probability bounded when more events than expected are received.
+ * <p>
+ * Bloom filters can yield false positives, an event that was not received before is then considered a duplicate. The probability of this
+ * happening is bounded by the configured false positive probability per generation. Checking an event is lock-free, only rotating the
+ * generations takes a lock.
+ */
+public final class EventDeduplicator {
+
+  /**
+   * Window in milliseconds, the minimum time for which an event ID is remembered unless the expected number of event IDs is exceeded.
+   */
+  private final long windowInMs;
+
+  /**
+   * Expected number of event IDs per generation.
+   */
+  private final long expectedEventsPerWindow;
+
+  /**
+   * False positive probability per generation.
+   */
+  private final double falsePositiveProbability;
+
+  /**
+   * Lock taken while rotating the generations.
+   */
+  private final ReentrantLock rotationLock = new ReentrantLock();
+
+  /**
+   * Number of checked events.
+   */
+  private final LongAdder checks = new LongAdder();
+
+  /**
+   * Number of checked events that were considered duplicates.
+   */
+  private final LongAdder hits = new LongAdder();
+
+  /**
+   * Current generation, new event IDs are added to this generation.
+   */
+  private volatile BloomFilter<CharSequence> current;
+
+  /**
+   * Previous generation.
+   */
+  private volatile BloomFilter<CharSequence> previous;
+
+  /**
+   * Time in milliseconds at which the current generation was created.
+   */
+  private volatile long currentCreatedTimeInMs;
+
+  /**
+   * Initializes an event deduplicator.
+   *
+   * @param windowInMs               Window in milliseconds, the minimum time for which an event ID is remembered unless the expected
+   *                                 number of event IDs is exceeded.
+   * @param expectedEventsPerWindow  Expected number of events received per window, also the minimum number of event IDs remembered after
+   *                                 an event ID before it is forgotten.
+   * @param falsePositiveProbability False positive probability per generation.
+   * @throws IllegalArgumentException If the window is not positive.
+   * @throws IllegalArgumentException If the expected number of events is not positive.
+   * @throws IllegalArgumentException If the false positive probability is not between zero and one, exclusive.
+   */
+  public EventDeduplicator(long windowInMs, long expectedEventsPerWindow, double falsePositiveProbability)
+      throws IllegalArgumentException {
+    if (windowInMs <= 0) {
+      throw new IllegalArgumentException("The deduplication window must be positive");
+    }
+    if (expectedEventsPerWindow <= 0) {
+      throw new IllegalArgumentException("The expected number of events per deduplication window must be positive");
+    }
+    if (falsePositiveProbability <= 0.0 || falsePositiveProbability >= 1.0) {
+      throw new IllegalArgumentException("The false positive probability must be between zero and one");
+    }
+
+    this.windowInMs = windowInMs;
+    this.expectedEventsPerWindow = expectedEventsPerWindow;
+    this.falsePositiveProbability = falsePositiveProbability;
+
+    this.current = newGeneration();
+    this.previous = newGeneration();
+    this.currentCreatedTimeInMs = System.currentTimeMillis();
+  }
+
+  /**
+   * Returns a flag that indicates whether an event is a duplicate, i.e., an event with the same ID was checked within the window or
+   * within the expected number of event IDs per window, whichever comes first. The ID of an event that is not a duplicate is remembered.
+   *
+   * @param event Event to check.
+   * @return True if the event is a duplicate, otherwise false.
+   */
+  public boolean isDuplicate(Event event) {
+    rotateIfNeeded();
+
+    checks.increment();
+
+    final var id = event.getId();
+
+    // Putting an ID that changes no bit of the current generation means it might have been put before
+    final var isDuplicate = previous.mightContain(id) | !current.put(id);
+
+    if (isDuplicate) {
+      hits.increment();
+    }
+
+    return isDuplicate;
+  }
+
+  /**
+   * Rotates the generations if the current generation is older than the window or has reached its expected number of event IDs. Both
+   * generations are discarded if the previous generation is older than two windows.
+   */
+  private void rotateIfNeeded() {
+    if (!isRotationNeeded(System.currentTimeMillis())) {
+      return;
+    }
+
+    try {
+      rotationLock.lock();
+
+      final var now = System.currentTimeMillis();
+
+      // Rotated concurrently
+      if (!isRotationNeeded(now)) {
+        return;
+      }
+
+      previous = now - currentCreatedTimeInMs >= 2 * windowInMs ? newGeneration() : current;
+      current = newGeneration();
+      currentCreatedTimeInMs = now;
+    } finally {
+      rotationLock.unlock();
+    }
+  }
+
+  /**
+   * Returns a flag that indicates whether the generations need to be rotated.
+   *
+   * @param now Current time in milliseconds.
+   * @return True if rotation is needed, otherwise false.
+   */
+  private boolean isRotationNeeded(long now) {
+    return now - currentCreatedTimeInMs >= windowInMs || current.approximateElementCount() >= expectedEventsPerWindow;
+  }
+
+  /**
+   * Creates a new, empty generation.
+   *
+   * @return Generation.
+   */
+  private BloomFilter<CharSequence> newGeneration() {
+    return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedEventsPerWindow, falsePositiveProbability);
+  }
+
+  /**
+   * Returns the number of checked events.
+   *
+   * @return Number of checked events.
+   */
+  public long getChecks() {
+    return checks.sum();
+  }
+
+  /**
+   * Returns the number of checked events that were considered duplicates.
+   *
+   * @return Number of duplicates.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+}
@@ -1,25 +1,185 @@
 package at.ac.uibk.dps.cirrina.execution.object.event;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+/**
+ * Event handler, sends events and propagates received events to event listeners.
+ * <p>
+ * Event listeners are indexed by the names of the events they consume, a received event is only propagated to the event listeners
+ * consuming it and to the event listeners consuming all events. The listener collections are copy-on-write, propagating an event never
+ * blocks the registration of event listeners and vice versa.
+ * <p>
+ * Received events are either propagated synchronously on the receiving thread, or fanned out across a fixed number of delivery threads.
+ * Event listeners are partitioned across the delivery threads, all events propagated to an event listener are propagated by the same
+ * delivery thread, in the order in which they were received.
+ * <p>
+ * Sent events can be propagated to local event listeners directly, without a round trip through the event system. The IDs of locally
+ * propagated events are remembered for a bounded time, the same events received back from the event system are then not propagated again.
+ * Locally propagated events are never propagated on the sending thread, an event listener may block until the sender itself consumes
+ * events.
+ * <p>
+ * Optionally, received events are deduplicated by their ID, an event received more than once within the deduplication window is only
+ * propagated once.
+ */
 public abstract class EventHandler implements AutoCloseable {
 
-  private final List<EventListener> listeners = new ArrayList<>();
+  /**
+   * Source of global events.
+   */
+  public static final String GLOBAL_SOURCE = "global";
 
-  private final ReentrantLock lock = new ReentrantLock();
+  /**
+   * Source of peripheral events.
+   */
+  public static final String PERIPHERAL_SOURCE = "peripheral";
+
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * Empty collection of event listeners, used if no event listener consumes an event.
+   */
+  private static final List<EventListener> EMPTY_LISTENERS = List.of();
+
+  /**
+   * Maximum number of remembered IDs of locally propagated events.
+   */
+  private static final int MAXIMUM_LOCALLY_PROPAGATED_EVENTS = 65536;
+
+  /**
+   * Time in seconds for which the ID of a locally propagated event is remembered.
+   */
+  private static final long LOCALLY_PROPAGATED_EVENT_EXPIRY_IN_S = 60;
+
+  /**
+   * Event listeners by the name of the events they consume.
+   */
+  private final Map<String, CopyOnWriteArrayList<EventListener>> listenersByEventName = new ConcurrentHashMap<>();
+
+  /**
+   * Event listeners that consume all events.
+   */
+  private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Delivery executors, one single-threaded executor per partition. Empty if events are propagated synchronously.
+   */
+  private final ExecutorService[] deliveryExecutors;
+
+  /**
+   * Loopback executor, propagates locally propagated events off the sending thread. Null if events are propagated on delivery threads.
+   */
+  private final @Nullable ExecutorService loopbackExecutor;
+
+  /**
+   * IDs of the events that were propagated locally when sent.
+   */
+  private final Cache<String, Boolean> locallyPropagatedEventIds = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_LOCALLY_PROPAGATED_EVENTS)
+      .expireAfterWrite(LOCALLY_PROPAGATED_EVENT_EXPIRY_IN_S, TimeUnit.SECONDS)
+      .build();
+
+  /**
+   * Event deduplicator, or null if received events are not deduplicated.
+   */
+  private volatile @Nullable EventDeduplicator deduplicator = null;
+
+  /**
+   * Initializes an event handler that propagates events synchronously.
+   */
+  public EventHandler() {
+    this(0);
+  }
+
+  /**
+   * Initializes an event handler.
+   *
+   * @param deliveryThreads Number of delivery threads, or zero to propagate events synchronously on the receiving thread.
+   * @throws IllegalArgumentException If the number of delivery threads is negative.
+   */
+  public EventHandler(int deliveryThreads) throws IllegalArgumentException {
+    if (deliveryThreads < 0) {
+      throw new IllegalArgumentException("The number of delivery threads must not be negative");
+    }
+
+    final var threadFactory = Thread.ofPlatform()
+        .name("event-delivery-", 0)
+        .daemon(true)
+        .factory();
+
+    deliveryExecutors = new ExecutorService[deliveryThreads];
+
+    for (int i = 0; i < deliveryThreads; ++i) {
+      deliveryExecutors[i] = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    // Delivery threads already propagate off the sending thread, the loopback thread is only started once an event is propagated locally
+    loopbackExecutor = deliveryThreads > 0 ? null : Executors.newSingleThreadExecutor(Thread.ofPlatform()
+        .name("event-loopback")
+        .daemon(true)
+        .factory());
+  }
 
   public abstract void sendEvent(Event event, String source) throws IOException;
 
+  /**
+   * Adds an event listener that consumes all events.
+   *
+   * @param listener Event listener.
+   */
   public void addListener(EventListener listener) {
-    try {
-      lock.lock();
+    listeners.add(listener);
+  }
+
+  /**
+   * Adds an event listener that consumes only the events with the provided names.
+   *
+   * @param listener   Event listener.
+   * @param eventNames Names of the consumed events.
+   */
+  public void addListener(EventListener listener, Collection<String> eventNames) {
+    for (final var eventName : Set.copyOf(eventNames)) {
+      // Atomic per event name, an empty listener collection is never removed while adding to it
+      listenersByEventName.compute(eventName, (name, eventListeners) -> {
+        if (eventListeners == null) {
+          eventListeners = new CopyOnWriteArrayList<>();
+        }
+
+        eventListeners.addIfAbsent(listener);
+
+        return eventListeners;
+      });
+    }
+  }
+
+  /**
+   * Removes an event listener.
+   *
+   * @param listener Event listener.
+   */
+  public void removeListener(EventListener listener) {
+    listeners.remove(listener);
 
-      listeners.add(listener);
-    } finally {
-      lock.unlock();
+    for (final var eventName : listenersByEventName.keySet()) {
+      listenersByEventName.computeIfPresent(eventName, (name, eventListeners) -> {
+        eventListeners.remove(listener);
+
+        return eventListeners.isEmpty() ? null : eventListeners;
+      });
     }
   }
 
@@ -31,13 +191,176 @@ public abstract class EventHandler implements AutoCloseable {
 
   public abstract void unsubscribe(String source, String subject);
 
+  /**
+   * Propagates an event to the event listeners consuming it. Event listeners that no longer accept events are removed.
+   * <p>
+   * May be called concurrently, the order of calls made by the same thread determines the order in which event listeners receive these
+   * events. Duplicate events are discarded if deduplicating.
+   *
+   * @param event Event to propagate.
+   */
   protected void propagateEvent(Event event) {
-    try {
-      lock.lock();
+    final var eventDeduplicator = deduplicator;
+
+    if (eventDeduplicator != null && eventDeduplicator.isDuplicate(event)) {
+      return;
+    }
+
+    final List<EventListener> eventListeners = listenersByEventName.getOrDefault(event.getName(), EMPTY_LISTENERS);
+
+    // Propagate synchronously
+    if (deliveryExecutors.length == 0) {
+      propagateEvent(event, eventListeners, -1);
+      propagateEvent(event, listeners, -1);
+      return;
+    }
 
-      listeners.removeIf(eventListener -> !eventListener.onReceiveEvent(event));
-    } finally {
-      lock.unlock();
+    // Only hand off to the delivery threads of partitions with at least one event listener
+    final var hasListeners = new boolean[deliveryExecutors.length];
+
+    markPartitions(eventListeners, hasListeners);
+    markPartitions(listeners, hasListeners);
+
+    for (int i = 0; i < deliveryExecutors.length; ++i) {
+      if (hasListeners[i]) {
+        final var partition = i;
+
+        deliveryExecutors[i].execute(() -> {
+          propagateEvent(event, eventListeners, partition);
+          propagateEvent(event, listeners, partition);
+        });
+      }
     }
   }
+
+  /**
+   * Marks a sent event as locally propagated if any local event listener consumes it, so that it is discarded when received back from the
+   * event system. Must be called before the event is sent, the event may be received back at any time after being sent.
+   * <p>
+   * Must only be called for events that are received back from the event system, i.e., events sent to a subscribed subject.
+   *
+   * @param event Sent event.
+   * @return True if the event is marked and must be propagated locally once sent, otherwise false.
+   */
+  protected boolean markPropagatedLocally(Event event) {
+    if (!listenersByEventName.containsKey(event.getName()) && listeners.isEmpty()) {
+      return false;
+    }
+
+    locallyPropagatedEventIds.put(event.getId(), Boolean.TRUE);
+
+    return true;
+  }
+
+  /**
+   * Removes the mark of a sent event marked as locally propagated, must be called if sending the marked event failed.
+   *
+   * @param event Event that could not be sent.
+   */
+  protected void unmarkPropagatedLocally(Event event) {
+    locallyPropagatedEventIds.invalidate(event.getId());
+  }
+
+  /**
+   * Propagates a sent event that is marked as locally propagated directly to the local event listeners consuming it.
+   * <p>
+   * The event is propagated by the loopback thread or the delivery threads, never by the sending thread. The order in which events are
+   * propagated locally is retained.
+   *
+   * @param event Sent event.
+   */
+  protected void propagateEventLocally(Event event) {
+    if (loopbackExecutor != null) {
+      loopbackExecutor.execute(() -> propagateEvent(event));
+    } else {
+      propagateEvent(event);
+    }
+  }
+
+  /**
+   * Returns a flag that indicates whether a received event was already propagated locally when it was sent.
+   *
+   * @param event Received event.
+   * @return True if the event was already propagated locally, otherwise false.
+   */
+  protected boolean isPropagatedLocally(Event event) {
+    return locallyPropagatedEventIds.getIfPresent(event.getId()) != null;
+  }
+
+  /**
+   * Shuts down the delivery threads, events that are pending delivery are still propagated. Must be called when closing this event handler.
+   */
+  protected void shutdownDelivery() {
+    for (final var deliveryExecutor : deliveryExecutors) {
+      deliveryExecutor.shutdown();
+    }
+
+    if (loopbackExecutor != null) {
+      loopbackExecutor.shutdown();
+    }
+  }
+
+  /**
+   * Propagates an event to the event listeners of a partition.
+   *
+   * @param event          Event to propagate.
+   * @param eventListeners Event listeners.
+   * @param partition      Partition, or -1 to propagate to all event listeners.
+   */
+  private void propagateEvent(Event event, List<EventListener> eventListeners, int partition) {
+    for (final var eventListener : eventListeners) {
+      if (partition >= 0 && partitionOf(eventListener) != partition) {
+        continue;
+      }
+
+      try {
+        if (!eventListener.onReceiveEvent(event)) {
+          removeListener(eventListener);
+        }
+      } catch (IllegalStateException e) {
+        // A rejected event must not prevent propagating the event to the remaining event listeners
+        logger.warn("An event listener rejected event '{}': {}", event.getName(), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Marks the partitions of the provided event listeners.
+   *
+   * @param eventListeners Event listeners.
+   * @param hasListeners   Flags by partition, set to true for each partition of an event listener.
+   */
+  private void markPartitions(List<EventListener> eventListeners, boolean[] hasListeners) {
+    for (final var eventListener : eventListeners) {
+      hasListeners[partitionOf(eventListener)] = true;
+    }
+  }
+
+  /**
+   * Returns the partition of an event listener, an event listener is always assigned to the same partition.
+   *
+   * @param eventListener Event listener.
+   * @return Partition.
+   */
+  private int partitionOf(EventListener eventListener) {
+    return Math.floorMod(System.identityHashCode(eventListener), deliveryExecutors.length);
+  }
+
+  /**
+   * Returns the event deduplicator.
+   *
+   * @return Event deduplicator, or empty if received events are not deduplicated.
+   */
+  public Optional<EventDeduplicator> getDeduplicator() {
+    return Optional.ofNullable(deduplicator);
+  }
+
+  /**
+   * Sets the event deduplicator, received events are deduplicated from then on.
+   *
+   * @param deduplicator Event deduplicator, or null to no longer deduplicate received events.
+   */
+  public void setDeduplicator(@Nullable EventDeduplicator deduplicator) {
+    this.deduplicator = deduplicator;
+  }
 }
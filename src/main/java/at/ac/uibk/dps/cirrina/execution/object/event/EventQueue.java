@@ -0,0 +1,281 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import jakarta.annotation.Nullable;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Event queue, a bounded multi-producer single-consumer queue of events received by a state machine instance.
+ * <p>
+ * Producers only need to wake the consumer if offering an event made the queue non-empty, offering to a non-empty queue does not require
+ * any synchronization beyond the lock-free queue itself. Whenever the queue is full, the overflow policy decides what happens to an offered
+ * event.
+ * <p>
+ * The capacity is enforced without locking and can be exceeded by a small margin by concurrent producers. Internal events are raised by
+ * state machine instances themselves, blocking these would deadlock the consumer, internal events are therefore never blocked.
+ */
+public final class EventQueue {
+
+  /**
+   * Queued events.
+   */
+  private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Number of queued events.
+   */
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Capacity, the number of events that can be queued before the overflow policy applies.
+   */
+  private final int capacity;
+
+  /**
+   * Overflow policy, applies when an event is offered to a full queue.
+   */
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * Called with each event that is dropped or rejected.
+   */
+  private final Consumer<Event> dropListener;
+
+  /**
+   * Lock used by blocked producers to wait until the queue is no longer full.
+   */
+  private final ReentrantLock notFullLock = new ReentrantLock();
+
+  /**
+   * Signalled whenever the queue is no longer full, only used by the block overflow policy.
+   */
+  private final Condition notFull = notFullLock.newCondition();
+
+  /**
+   * Flag that indicates whether this queue is closed, events offered to a closed queue are dropped.
+   */
+  private volatile boolean closed = false;
+
+  /**
+   * Initializes an event queue.
+   *
+   * @param capacity       Capacity.
+   * @param overflowPolicy Overflow policy.
+   * @param dropListener   Called with each event that is dropped or rejected.
+   * @throws IllegalArgumentException If the capacity is not positive.
+   */
+  public EventQueue(int capacity, OverflowPolicy overflowPolicy, Consumer<Event> dropListener) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The event queue capacity must be positive");
+    }
+
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.dropListener = dropListener;
+  }
+
+  /**
+   * Offers an event to this queue, applying the overflow policy if this queue is full.
+   *
+   * @param event Event to offer.
+   * @return True if this queue was empty before the event was added and the consumer needs to be woken, otherwise false.
+   * @throws IllegalStateException If this queue is full and the overflow policy is to reject events.
+   */
+  public boolean offer(Event event) throws IllegalStateException {
+    if (closed) {
+      dropListener.accept(event);
+      return false;
+    }
+
+    if (size.get() >= capacity) {
+      switch (overflowPolicy) {
+        case BLOCK -> {
+          if (event.getChannel() != EventChannel.INTERNAL && !awaitNotFull()) {
+            dropListener.accept(event);
+            return false;
+          }
+        }
+        case DROP_NEWEST -> {
+          dropListener.accept(event);
+          return false;
+        }
+        case REJECT -> {
+          dropListener.accept(event);
+          throw new IllegalStateException("The event queue is full, rejected event '%s'".formatted(event.getName()));
+        }
+        case DROP_OLDEST -> {
+          // The oldest events are dropped once the offered event is added
+        }
+      }
+    }
+
+    // Add before counting, a consumer observing a non-zero size can rely on the event being queued
+    queue.add(event);
+
+    final var wasEmpty = size.getAndIncrement() == 0;
+
+    if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+      while (size.get() > capacity) {
+        final var oldestEvent = queue.poll();
+
+        if (oldestEvent == null) {
+          break;
+        }
+
+        size.decrementAndGet();
+        dropListener.accept(oldestEvent);
+      }
+    }
+
+    return wasEmpty;
+  }
+
+  /**
+   * Retrieves and removes the oldest event, must only be called by the consumer.
+   *
+   * @return The oldest event or null if this queue is empty.
+   */
+  public @Nullable Event poll() {
+    final var event = queue.poll();
+
+    if (event != null) {
+      final var previousSize = size.getAndDecrement();
+
+      // Wake up blocked producers if this queue was full
+      if (overflowPolicy == OverflowPolicy.BLOCK && previousSize >= capacity) {
+        signalNotFull();
+      }
+    }
+
+    return event;
+  }
+
+  /**
+   * Retrieves and removes up to a maximum number of the oldest events, must only be called by the consumer.
+   * <p>
+   * Draining multiple events at once only updates the size of this queue once.
+   *
+   * @param events    Collection to add the removed events to, in order.
+   * @param maxEvents Maximum number of events to remove.
+   * @return Number of removed events.
+   */
+  public int drainTo(Collection<Event> events, int maxEvents) {
+    int drained = 0;
+
+    while (drained < maxEvents) {
+      final var event = queue.poll();
+
+      if (event == null) {
+        break;
+      }
+
+      events.add(event);
+      ++drained;
+    }
+
+    if (drained > 0) {
+      final var previousSize = size.getAndAdd(-drained);
+
+      // Wake up blocked producers if this queue was full
+      if (overflowPolicy == OverflowPolicy.BLOCK && previousSize >= capacity) {
+        signalNotFull();
+      }
+    }
+
+    return drained;
+  }
+
+  /**
+   * Closes this queue, blocked producers are released and events offered afterward are dropped.
+   */
+  public void close() {
+    closed = true;
+
+    signalNotFull();
+  }
+
+  /**
+   * Waits until this queue is no longer full.
+   *
+   * @return True if this queue is no longer full, false if this queue was closed or waiting was interrupted.
+   */
+  private boolean awaitNotFull() {
+    try {
+      notFullLock.lock();
+
+      while (size.get() >= capacity && !closed) {
+        notFull.await();
+      }
+
+      return !closed;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      return false;
+    } finally {
+      notFullLock.unlock();
+    }
+  }
+
+  /**
+   * Wakes up all producers waiting for this queue to no longer be full.
+   */
+  private void signalNotFull() {
+    try {
+      notFullLock.lock();
+
+      notFull.signalAll();
+    } finally {
+      notFullLock.unlock();
+    }
+  }
+
+  /**
+   * Returns a flag that indicates whether this queue is empty.
+   *
+   * @return True if empty, otherwise false.
+   */
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  /**
+   * Returns the number of queued events.
+   *
+   * @return Number of queued events.
+   */
+  public int size() {
+    return Math.max(size.get(), 0);
+  }
+
+  /**
+   * Overflow policy, decides what happens to an event offered to a full event queue.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The producer waits until the event queue is no longer full.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued event is dropped in favor of the offered event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The offered event is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The offered event is dropped and the producer is notified by an exception.
+     */
+    REJECT
+  }
+}
@@ -1,101 +1,507 @@
 package at.ac.uibk.dps.cirrina.execution.object.event;
 
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventBatchExchange;
 import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventProtos;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.nats.client.Connection;
 import io.nats.client.Dispatcher;
 import io.nats.client.Message;
 import io.nats.client.Nats;
+import io.nats.client.impl.Headers;
+import jakarta.annotation.Nullable;
 import java.io.IOException;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * NATS event handler, sends and receives events through NATS.
+ * <p>
+ * Events can be published in batches, events sent to the same subject are then collected and packed into a single event batch message
+ * once either the batch size is reached or the flush interval has elapsed. Event batch messages are marked with a header, messages without
+ * the header contain a single event. When publishing in batches, the order of sent events is only retained per subject, events sent to
+ * different subjects can be published in a different order than they were sent.
+ * <p>
+ * Messages are received by a configurable number of dispatchers, each with its own delivery thread. Subjects are sharded across the
+ * dispatchers by hash, all messages of a subject are received by the same dispatcher and therefore in order.
+ * <p>
+ * Sent events published to a subscribed subject are propagated to the local event listeners directly, the same events received back
+ * through NATS are discarded.
+ */
 public class NatsEventHandler extends EventHandler {
 
-  public static final String GLOBAL_SOURCE = "global";
-  public static final String PERIPHERAL_SOURCE = "peripheral";
+  /**
+   * Header describing the content of a message.
+   */
+  public static final String CONTENT_TYPE_HEADER = "Cirrina-Content-Type";
+
+  /**
+   * Content type of a message that contains an event batch.
+   */
+  public static final String CONTENT_TYPE_EVENT_BATCH = "event-batch";
+
+  /**
+   * Source of wildcard subjects, matching events from any source.
+   */
+  private static final String WILDCARD_SOURCE = "*";
+
+  /**
+   * Maximum number of sources for which subjects are cached.
+   */
+  private static final int MAXIMUM_SUBJECT_CACHE_SIZE = 4096;
 
   private static final Logger logger = LogManager.getLogger();
 
   private final Connection connection;
 
-  private final Dispatcher dispatcher;
+  /**
+   * Message dispatchers (asynchronous), subjects are sharded across the dispatchers.
+   */
+  private final Dispatcher[] dispatchers;
+
+  private final Parameters parameters;
+
+  /**
+   * Cached subjects by event name, by source.
+   */
+  private final Cache<String, Map<String, String>> subjects = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_SUBJECT_CACHE_SIZE)
+      .build();
+
+  /**
+   * Subscribed subjects.
+   */
+  private final Set<String> subscribedSubjects = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Events pending publishing by subject, only used when publishing in batches.
+   */
+  private final Map<String, List<EventProtos.Event>> pendingBatches = new HashMap<>();
+
+  /**
+   * Lock guarding the pending batches, publishing a batch happens while holding this lock to retain the order of events per subject.
+   */
+  private final ReentrantLock publishLock = new ReentrantLock();
+
+  /**
+   * Periodically flushes the pending batches, null if events are not published in batches.
+   */
+  private final @Nullable ScheduledExecutorService flushExecutorService;
 
   public NatsEventHandler(String natsUrl) throws IOException {
-    // Attempt to connect to the NATS server
+    this(natsUrl, Parameters.defaults());
+  }
+
+  /**
+   * Initializes a NATS event handler.
+   *
+   * @param natsUrl    NATS server URL.
+   * @param parameters Parameters.
+   * @throws IOException If the NATS server could not be connected to.
+   */
+  public NatsEventHandler(String natsUrl, Parameters parameters) throws IOException {
+    this(connect(natsUrl), parameters);
+  }
+
+  /**
+   * Initializes a NATS event handler using an established connection.
+   *
+   * @param connection NATS connection.
+   * @param parameters Parameters.
+   */
+  NatsEventHandler(Connection connection, Parameters parameters) {
+    super(parameters.deliveryThreads());
+
+    this.connection = connection;
+    this.parameters = parameters;
+
+    // Create the message dispatchers (asynchronous)
+    dispatchers = new Dispatcher[parameters.dispatchers()];
+
+    for (int i = 0; i < dispatchers.length; ++i) {
+      dispatchers[i] = connection.createDispatcher(this::handle);
+    }
+
+    // Flush pending batches periodically, if publishing in batches
+    if (parameters.isBatching()) {
+      flushExecutorService = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+          .name("event-publish-flush")
+          .daemon(true)
+          .factory());
+
+      flushExecutorService.scheduleWithFixedDelay(this::flush, parameters.publishFlushIntervalInMs(),
+          parameters.publishFlushIntervalInMs(), TimeUnit.MILLISECONDS);
+    } else {
+      flushExecutorService = null;
+    }
+  }
+
+  /**
+   * Connects to a NATS server.
+   *
+   * @param natsUrl NATS server URL.
+   * @return NATS connection.
+   * @throws IOException If the NATS server could not be connected to.
+   */
+  private static Connection connect(String natsUrl) throws IOException {
     try {
-      connection = Nats.connect(natsUrl);
+      return Nats.connect(natsUrl);
     } catch (InterruptedException | IOException e) {
       Thread.currentThread().interrupt();
 
       throw new IOException("Could not connect to the NATS server", e);
     }
+  }
 
-    // Create a message dispatcher (asynchronous)
-    dispatcher = connection.createDispatcher(this::handle);
+  /**
+   * Returns a flag that indicates whether a message contains an event batch.
+   *
+   * @param message Message.
+   * @return True if the message contains an event batch, otherwise false.
+   */
+  private static boolean isEventBatch(Message message) {
+    return message.hasHeaders() && CONTENT_TYPE_EVENT_BATCH.equals(message.getHeaders().getFirst(CONTENT_TYPE_HEADER));
   }
 
   private void handle(Message message) {
-    // Reconstruct the event from the message data, if possible
+    // Reconstruct the event(s) from the message data, if possible. Only the event headers are decoded, event data is decoded lazily
     try {
-      var event = EventExchange.fromBytes(message.getData()).getEvent();
+      if (isEventBatch(message)) {
+        for (final var event : EventBatchExchange.eventsFromBytes(message.getData())) {
+          propagateReceivedEvent(event);
+        }
+      } else {
+        var event = EventExchange.fromBytes(message.getData()).getEvent();
 
-      propagateEvent(event);
+        propagateReceivedEvent(event);
+      }
     } catch (UnsupportedOperationException e) {
       logger.debug("A message could not be read as an event: {}", e.getMessage());
     }
   }
 
+  /**
+   * Propagates a received event, unless it was sent by this event handler and already propagated locally.
+   *
+   * @param event Received event.
+   */
+  private void propagateReceivedEvent(Event event) {
+    if (!isPropagatedLocally(event)) {
+      propagateEvent(event);
+    }
+  }
+
   @Override
   public void sendEvent(Event event, String source) throws IOException {
+    var isPropagatedLocally = false;
+
     try {
-      var data = new EventExchange(event).toBytes();
-
-      // * is used as a wildcard, for more information, refer to the NATS documentation:
-      // https://docs.nats.io/using-nats/developer/receiving/wildcards
-      var subject = Stream.of(event.getChannel())
-          .map(channel -> switch (channel) {
-            case EXTERNAL -> String.format("%s.%s", source, event.getName());
-            case GLOBAL -> String.format("%s.%s", GLOBAL_SOURCE, event.getName());
-            default -> throw new IllegalArgumentException(String.format("Unsupported channel '%s'", channel));
-          })
-          .findFirst()
-          .orElseThrow(() -> new IllegalArgumentException("No channel specified for the event"));
-
-      connection.publish(subject, data);
+      final var subject = subjectOf(event, source);
+
+      // Hand the event to the local event listeners directly if subscribed to, it is still published for remote subscribers. The event is
+      // marked before publishing, it may be received back as soon as it is published
+      isPropagatedLocally = isSubscribed(subject, event) && markPropagatedLocally(event);
+
+      publish(subject, event);
     } catch (IllegalArgumentException | IllegalStateException e) {
+      if (isPropagatedLocally) {
+        unmarkPropagatedLocally(event);
+      }
+
       throw new IOException("Could not send event through NATS", e);
     }
+
+    // Only propagate locally once published or pending publishing, local and remote event listeners receive the same events
+    if (isPropagatedLocally) {
+      propagateEventLocally(event);
+    }
   }
 
   @Override
   public void subscribe(String eventName) {
-    dispatcher.subscribe(String.format("*.%s", eventName));
+    final var subject = subjectOf(WILDCARD_SOURCE, eventName);
+
+    dispatcherOf(subject).subscribe(subject);
+    subscribedSubjects.add(subject);
   }
 
   @Override
   public void unsubscribe(String eventName) {
-    dispatcher.unsubscribe(String.format("*.%s", eventName));
+    final var subject = subjectOf(WILDCARD_SOURCE, eventName);
+
+    dispatcherOf(subject).unsubscribe(subject);
+    subscribedSubjects.remove(subject);
   }
 
   @Override
   public void subscribe(String source, String eventName) {
-    dispatcher.subscribe(String.format("%s.%s", source, eventName));
+    final var subject = subjectOf(source, eventName);
+
+    dispatcherOf(subject).subscribe(subject);
+    subscribedSubjects.add(subject);
   }
 
   @Override
   public void unsubscribe(String source, String eventName) {
-    dispatcher.unsubscribe(String.format("%s.%s", source, eventName));
+    final var subject = subjectOf(source, eventName);
+
+    dispatcherOf(subject).unsubscribe(subject);
+    subscribedSubjects.remove(subject);
   }
 
   @Override
   public void close() throws IOException {
     try {
-      connection.closeDispatcher(dispatcher);
+      // Publish any pending batches before closing the connection
+      if (flushExecutorService != null) {
+        flushExecutorService.shutdown();
+      }
+
+      flush();
+      discardPendingBatches();
+
+      for (final var dispatcher : dispatchers) {
+        connection.closeDispatcher(dispatcher);
+      }
 
       connection.close();
+
+      shutdownDelivery();
     } catch (InterruptedException e) {
       throw new IOException("Failed to close NATS persistent context", e);
     }
   }
+
+  /**
+   * Publishes all pending batches. Each batch is published independently and only removed once published, a batch that could not be
+   * published remains pending and is retried by the next flush.
+   */
+  private void flush() {
+    try {
+      publishLock.lock();
+
+      for (final var iterator = pendingBatches.entrySet().iterator(); iterator.hasNext(); ) {
+        final var pendingBatch = iterator.next();
+
+        try {
+          publish(pendingBatch.getKey(), pendingBatch.getValue());
+
+          iterator.remove();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          logger.error("Could not publish {} pending events to subject '{}': {}", pendingBatch.getValue().size(), pendingBatch.getKey(),
+              e.getMessage());
+        }
+      }
+    } finally {
+      publishLock.unlock();
+    }
+  }
+
+  /**
+   * Discards all pending batches, the discarded events are lost.
+   */
+  private void discardPendingBatches() {
+    try {
+      publishLock.lock();
+
+      final var lostEvents = pendingBatches.values().stream()
+          .mapToInt(List::size)
+          .sum();
+
+      if (lostEvents > 0) {
+        logger.error("Lost {} pending events that could not be published", lostEvents);
+      }
+
+      pendingBatches.clear();
+    } finally {
+      publishLock.unlock();
+    }
+  }
+
+  /**
+   * Publishes an event to a subject, either immediately or as part of the pending batch of the subject.
+   * <p>
+   * If the pending batch becomes full but could not be published, the event is removed from the batch again and the remaining events
+   * stay pending.
+   *
+   * @param subject Subject.
+   * @param event   Event.
+   * @throws IllegalArgumentException If the event could not be converted or published.
+   * @throws IllegalStateException    If the connection is closed.
+   */
+  private void publish(String subject, Event event) throws IllegalArgumentException, IllegalStateException {
+    final var eventProto = new EventExchange(event).toProto();
+
+    // Publish immediately if not publishing in batches
+    if (!parameters.isBatching()) {
+      connection.publish(subject, eventProto.toByteArray());
+      return;
+    }
+
+    try {
+      publishLock.lock();
+
+      final var pendingBatch = pendingBatches.computeIfAbsent(subject, key -> new ArrayList<>());
+
+      pendingBatch.add(eventProto);
+
+      // Publish once the batch is full, otherwise the batch is published by the next flush
+      if (pendingBatch.size() >= parameters.publishBatchSize()) {
+        try {
+          publish(subject, pendingBatch);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          // The event is not sent, the events sent before it remain pending and are retried by the next flush
+          pendingBatch.removeLast();
+
+          throw e;
+        }
+
+        pendingBatches.remove(subject);
+      }
+    } finally {
+      publishLock.unlock();
+    }
+  }
+
+  /**
+   * Publishes a batch of events to a subject, a batch containing a single event is published as a single event.
+   *
+   * @param subject     Subject.
+   * @param eventProtos Event protos, in order.
+   * @throws IllegalArgumentException If the batch is too large to be published.
+   * @throws IllegalStateException    If the connection is closed.
+   */
+  private void publish(String subject, List<EventProtos.Event> eventProtos) throws IllegalArgumentException, IllegalStateException {
+    if (eventProtos.size() == 1) {
+      connection.publish(subject, eventProtos.getFirst().toByteArray());
+      return;
+    }
+
+    final var headers = new Headers()
+        .add(CONTENT_TYPE_HEADER, CONTENT_TYPE_EVENT_BATCH);
+
+    connection.publish(subject, headers, new EventBatchExchange(eventProtos).toBytes());
+  }
+
+  /**
+   * Returns a flag that indicates whether an event published to a subject is received back, i.e., whether the subject or the wildcard
+   * subject of the event is subscribed to.
+   *
+   * @param subject Subject the event is published to.
+   * @param event   Event.
+   * @return True if subscribed to, otherwise false.
+   */
+  private boolean isSubscribed(String subject, Event event) {
+    return subscribedSubjects.contains(subject) || subscribedSubjects.contains(subjectOf(WILDCARD_SOURCE, event.getName()));
+  }
+
+  /**
+   * Returns the dispatcher responsible for a subject, a subject is always assigned to the same dispatcher.
+   *
+   * @param subject Subject.
+   * @return Dispatcher.
+   */
+  private Dispatcher dispatcherOf(String subject) {
+    return dispatchers[Math.floorMod(subject.hashCode(), dispatchers.length)];
+  }
+
+  /**
+   * Returns the subject to publish an event to, subjects are cached per source and event name.
+   * <p>
+   * * is used as a wildcard when subscribing, for more information, refer to the NATS documentation:
+   * https://docs.nats.io/using-nats/developer/receiving/wildcards
+   *
+   * @param event  Event.
+   * @param source Source.
+   * @return Subject.
+   * @throws IllegalArgumentException If the channel of the event is not supported.
+   */
+  private String subjectOf(Event event, String source) throws IllegalArgumentException {
+    final var subjectSource = switch (event.getChannel()) {
+      case EXTERNAL -> source;
+      case GLOBAL -> GLOBAL_SOURCE;
+      case PERIPHERAL -> PERIPHERAL_SOURCE;
+      default -> throw new IllegalArgumentException(String.format("Unsupported channel '%s'", event.getChannel()));
+    };
+
+    return subjectOf(subjectSource, event.getName());
+  }
+
+  /**
+   * Returns the subject of a source and event name, subjects are cached per source and event name.
+   *
+   * @param source    Source.
+   * @param eventName Event name.
+   * @return Subject.
+   */
+  private String subjectOf(String source, String eventName) {
+    return subjects.asMap()
+        .computeIfAbsent(source, key -> new ConcurrentHashMap<>())
+        .computeIfAbsent(eventName, name -> String.format("%s.%s", source, name));
+  }
+
+  /**
+   * NATS event handler parameters.
+   *
+   * @param dispatchers              Number of NATS dispatchers, subjects are sharded across the dispatchers.
+   * @param deliveryThreads          Number of delivery threads, or zero to propagate events on the NATS dispatcher threads.
+   * @param publishBatchSize         Maximum number of events per published batch, one publishes every event immediately. Batching only
+   *                                 retains the order of sent events per subject.
+   * @param publishFlushIntervalInMs Interval in milliseconds at which pending batches are published.
+   */
+  public record Parameters(
+      int dispatchers,
+      int deliveryThreads,
+      int publishBatchSize,
+      long publishFlushIntervalInMs
+  ) {
+
+    /**
+     * Initializes these parameters.
+     *
+     * @throws IllegalArgumentException If the number of dispatchers is not positive.
+     * @throws IllegalArgumentException If the publish batch size is not positive.
+     * @throws IllegalArgumentException If the publish flush interval is not positive.
+     */
+    public Parameters {
+      if (dispatchers <= 0) {
+        throw new IllegalArgumentException("The number of dispatchers must be positive");
+      }
+      if (publishBatchSize <= 0) {
+        throw new IllegalArgumentException("The publish batch size must be positive");
+      }
+      if (publishFlushIntervalInMs <= 0) {
+        throw new IllegalArgumentException("The publish flush interval must be positive");
+      }
+    }
+
+    /**
+     * Returns the default parameters, events are received by a single NATS dispatcher, propagated on its thread and published immediately.
+     *
+     * @return Default parameters.
+     */
+    public static Parameters defaults() {
+      return new Parameters(1, 0, 1, 5);
+    }
+
+    /**
+     * Returns a flag that indicates whether events are published in batches.
+     *
+     * @return True if publishing in batches, otherwise false.
+     */
+    public boolean isBatching() {
+      return publishBatchSize > 1;
+    }
+  }
 }
@@ -0,0 +1,262 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_PERIPHERAL_EVENT_RECEIVER_DATAGRAMS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_PERIPHERAL_EVENT_RECEIVER_DISCARDED;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_PERIPHERAL_EVENT_RECEIVER_EVENTS;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventBatchExchange;
+import io.opentelemetry.api.metrics.Meter;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Peripheral event receiver, ingests peripheral events from a local UDP socket without a round trip through the event system.
+ * <p>
+ * Every datagram contains an event batch in the exchange format, allowing peripherals to send many readings at once. The events are
+ * injected into the event handler as if received from the event system and are only propagated to local event listeners. Only events on
+ * the peripheral channel are accepted, events on other channels are discarded.
+ * <p>
+ * Datagrams are received by a single receiver thread into a reused buffer. The event data of accepted events is decoded on receipt, as the
+ * socket is unauthenticated, events with malformed event data are discarded before they reach a state machine instance. The numbers of
+ * received datagrams, injected events and discarded datagrams or events can be observed as gauges.
+ */
+public final class PeripheralEventReceiver implements AutoCloseable {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * Maximum size of a UDP datagram payload.
+   */
+  private static final int MAXIMUM_DATAGRAM_SIZE = 65507;
+
+  /**
+   * Event handler to inject received events into.
+   */
+  private final EventHandler eventHandler;
+
+  /**
+   * Datagram channel, bound to the local address.
+   */
+  private final DatagramChannel channel;
+
+  /**
+   * Receiver thread.
+   */
+  private final Thread receiverThread;
+
+  /**
+   * Number of received datagrams.
+   */
+  private final LongAdder receivedDatagrams = new LongAdder();
+
+  /**
+   * Number of received events that were injected.
+   */
+  private final LongAdder receivedEvents = new LongAdder();
+
+  /**
+   * Number of received datagrams or events that were discarded.
+   */
+  private final LongAdder discarded = new LongAdder();
+
+  /**
+   * Initializes a peripheral event receiver and starts receiving.
+   *
+   * @param eventHandler Event handler to inject received events into.
+   * @param parameters   Parameters.
+   * @throws IOException If the UDP socket could not be bound.
+   */
+  public PeripheralEventReceiver(EventHandler eventHandler, Parameters parameters) throws IOException {
+    this.eventHandler = eventHandler;
+
+    channel = DatagramChannel.open();
+
+    try {
+      channel.setOption(StandardSocketOptions.SO_RCVBUF, parameters.receiveBufferSize());
+      channel.bind(new InetSocketAddress(parameters.host(), parameters.port()));
+    } catch (IOException e) {
+      channel.close();
+
+      throw new IOException("Could not bind the peripheral event receiver", e);
+    }
+
+    receiverThread = Thread.ofPlatform()
+        .name("peripheral-event-receiver")
+        .daemon(true)
+        .start(this::receive);
+  }
+
+  /**
+   * Returns a flag that indicates whether the event data of an event can be decoded.
+   *
+   * @param event Event.
+   * @return True if the event data can be decoded, otherwise false.
+   */
+  private static boolean hasValidData(Event event) {
+    try {
+      event.getData();
+
+      return true;
+    } catch (UnsupportedOperationException e) {
+      logger.debug("The data of peripheral event '{}' could not be decoded: {}", event.getName(), e.getMessage());
+
+      return false;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    // Closing the channel releases the receiver thread
+    channel.close();
+
+    try {
+      receiverThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      throw new IOException("Failed to close peripheral event receiver", e);
+    }
+  }
+
+  /**
+   * Observes the numbers of received datagrams, injected events and discarded datagrams or events as gauges.
+   *
+   * @param meter Meter to build the gauges with.
+   */
+  public void observe(Meter meter) {
+    meter.gaugeBuilder(GAUGE_PERIPHERAL_EVENT_RECEIVER_DATAGRAMS).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(getReceivedDatagrams()));
+    meter.gaugeBuilder(GAUGE_PERIPHERAL_EVENT_RECEIVER_EVENTS).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(getReceivedEvents()));
+    meter.gaugeBuilder(GAUGE_PERIPHERAL_EVENT_RECEIVER_DISCARDED).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(getDiscarded()));
+  }
+
+  /**
+   * Receives datagrams until the channel is closed.
+   */
+  private void receive() {
+    final var buffer = ByteBuffer.allocateDirect(MAXIMUM_DATAGRAM_SIZE);
+
+    while (channel.isOpen()) {
+      try {
+        buffer.clear();
+
+        channel.receive(buffer);
+
+        buffer.flip();
+
+        // Copy the datagram, received events retain their bytes until their event data is decoded
+        final var data = new byte[buffer.remaining()];
+
+        buffer.get(data);
+
+        receivedDatagrams.increment();
+
+        inject(data);
+      } catch (ClosedChannelException e) {
+        break;
+      } catch (IOException e) {
+        logger.error("Could not receive a peripheral datagram: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Injects the events contained in a datagram into the event handler, events with malformed event data are discarded individually.
+   *
+   * @param data Datagram data.
+   */
+  private void inject(byte[] data) {
+    try {
+      for (final var event : EventBatchExchange.eventsFromBytes(data)) {
+        if (event.getChannel() != EventChannel.PERIPHERAL || !hasValidData(event)) {
+          discarded.increment();
+          continue;
+        }
+
+        receivedEvents.increment();
+
+        eventHandler.propagateEvent(event);
+      }
+    } catch (UnsupportedOperationException e) {
+      discarded.increment();
+
+      logger.debug("A peripheral datagram could not be read as an event batch: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the local address the UDP socket is bound to.
+   *
+   * @return Local address.
+   * @throws IOException If the local address could not be determined.
+   */
+  public InetSocketAddress getLocalAddress() throws IOException {
+    return (InetSocketAddress) channel.getLocalAddress();
+  }
+
+  /**
+   * Returns the number of received datagrams.
+   *
+   * @return Number of received datagrams.
+   */
+  public long getReceivedDatagrams() {
+    return receivedDatagrams.sum();
+  }
+
+  /**
+   * Returns the number of received events that were injected.
+   *
+   * @return Number of injected events.
+   */
+  public long getReceivedEvents() {
+    return receivedEvents.sum();
+  }
+
+  /**
+   * Returns the number of received datagrams or events that were discarded.
+   *
+   * @return Number of discarded datagrams or events.
+   */
+  public long getDiscarded() {
+    return discarded.sum();
+  }
+
+  /**
+   * Peripheral event receiver parameters.
+   *
+   * @param host              Host to bind to.
+   * @param port              Port to bind to, or zero to bind to any free port.
+   * @param receiveBufferSize Size of the socket receive buffer in bytes.
+   */
+  public record Parameters(
+      String host,
+      int port,
+      int receiveBufferSize
+  ) {
+
+    /**
+     * Initializes these parameters.
+     *
+     * @throws IllegalArgumentException If the port is out of range.
+     * @throws IllegalArgumentException If the receive buffer size is not positive.
+     */
+    public Parameters {
+      if (port < 0 || port > 65535) {
+        throw new IllegalArgumentException("The port must be between 0 and 65535");
+      }
+      if (receiveBufferSize <= 0) {
+        throw new IllegalArgumentException("The receive buffer size must be positive");
+      }
+    }
+  }
+}
@@ -0,0 +1,328 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Ring buffer event handler, sends and receives events in-process, without an event system.
+ * <p>
+ * Sent events are published to a preallocated ring buffer and propagated by a single consumer thread. Producers claim a sequence number
+ * with a single atomic increment and publish the event by marking its slot with the claimed sequence number, no locks are taken. A producer
+ * that claims a sequence number while the ring buffer is full waits until the consumer has freed a slot.
+ * <p>
+ * The wait strategy decides how the consumer waits for events to be published and how producers wait for free slots, trading latency
+ * against CPU usage. Events sent by the same thread are propagated in order.
+ * <p>
+ * Without delivery threads, event listeners are called by the consumer thread. An event listener that blocks, e.g., on a full event queue
+ * with the block overflow policy, then stalls all producers once the ring buffer is full. Delivery threads decouple the consumer thread
+ * from blocking event listeners.
+ */
+public class RingBufferEventHandler extends EventHandler {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * Number of times the yielding wait strategy spins before yielding.
+   */
+  private static final int SPIN_TRIES = 100;
+
+  /**
+   * Time in nanoseconds a producer parks while waiting for a free slot, only used by the blocking wait strategy.
+   */
+  private static final long PRODUCER_PARK_TIME_IN_NS = 50_000;
+
+  /**
+   * Bit set in the claimed sequence number once this event handler is closed, sequence numbers claimed afterward are never consumed.
+   */
+  private static final long CLOSED_BIT = 1L << 62;
+
+  /**
+   * Preallocated event slots.
+   */
+  private final Event[] slots;
+
+  /**
+   * Sequence number published to each slot, a slot can be consumed once it holds the sequence number expected by the consumer.
+   */
+  private final AtomicLongArray publishedSequences;
+
+  /**
+   * Mask to map a sequence number to a slot index.
+   */
+  private final int mask;
+
+  /**
+   * Next sequence number to be claimed by a producer, with the closed bit set once this event handler is closed.
+   */
+  private final AtomicLong claimedSequence = new AtomicLong();
+
+  /**
+   * Next sequence number to be consumed, all preceding slots are free.
+   */
+  private final AtomicLong consumedSequence = new AtomicLong();
+
+  /**
+   * Wait strategy of the consumer.
+   */
+  private final WaitStrategy waitStrategy;
+
+  /**
+   * Consumer thread, propagates published events.
+   */
+  private final Thread consumerThread;
+
+  /**
+   * Flag that indicates whether the consumer is parked, only used by the blocking wait strategy.
+   */
+  private volatile boolean consumerParked = false;
+
+  /**
+   * Flag that indicates whether this event handler is closed, events can no longer be sent once closed.
+   */
+  private volatile boolean closed = false;
+
+  /**
+   * First sequence number claimed after closing, all preceding sequence numbers are still consumed.
+   */
+  private volatile long closedSequence = Long.MAX_VALUE;
+
+  /**
+   * Initializes a ring buffer event handler.
+   *
+   * @param parameters Parameters.
+   */
+  public RingBufferEventHandler(Parameters parameters) {
+    super(parameters.deliveryThreads());
+
+    this.slots = new Event[parameters.capacity()];
+    this.publishedSequences = new AtomicLongArray(parameters.capacity());
+    this.mask = parameters.capacity() - 1;
+    this.waitStrategy = parameters.waitStrategy();
+
+    // No slot holds a sequence number initially
+    for (int i = 0; i < parameters.capacity(); ++i) {
+      publishedSequences.set(i, -1);
+    }
+
+    consumerThread = Thread.ofPlatform()
+        .name("event-ring-buffer")
+        .daemon(true)
+        .start(this::consume);
+  }
+
+  @Override
+  public void sendEvent(Event event, String source) throws IOException {
+    final var sequence = claimedSequence.getAndIncrement();
+
+    // Claimed after closing, the consumer no longer consumes this sequence number
+    if ((sequence & CLOSED_BIT) != 0) {
+      throw new IOException("Could not send event, the event handler is closed");
+    }
+
+    // Wait for the slot to be freed if the ring buffer is full
+    awaitFreeSlot(sequence);
+
+    final var index = (int) (sequence & mask);
+
+    // Publishing the sequence number releases the event to the consumer, a volatile write is required to observe a parked consumer
+    slots[index] = event;
+    publishedSequences.set(index, sequence);
+
+    if (waitStrategy == WaitStrategy.BLOCKING && consumerParked) {
+      LockSupport.unpark(consumerThread);
+    }
+  }
+
+  @Override
+  public void subscribe(String subject) {
+    // All events are propagated in-process, no subscription is required
+  }
+
+  @Override
+  public void unsubscribe(String subject) {
+    // All events are propagated in-process, no subscription is required
+  }
+
+  @Override
+  public void subscribe(String source, String subject) {
+    // All events are propagated in-process, no subscription is required
+  }
+
+  @Override
+  public void unsubscribe(String source, String subject) {
+    // All events are propagated in-process, no subscription is required
+  }
+
+  @Override
+  public void close() throws IOException {
+    // Mark the claimed sequence number as closed, atomically with respect to producers claiming sequence numbers
+    final var sequence = claimedSequence.getAndUpdate(claimed -> claimed | CLOSED_BIT);
+
+    if ((sequence & CLOSED_BIT) == 0) {
+      closedSequence = sequence;
+      closed = true;
+    }
+
+    // Events claimed before closing are still propagated
+    LockSupport.unpark(consumerThread);
+
+    try {
+      consumerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      throw new IOException("Failed to close ring buffer event handler", e);
+    } finally {
+      shutdownDelivery();
+    }
+  }
+
+  /**
+   * Consumes published events until this event handler is closed and all sequence numbers claimed before closing have been consumed.
+   */
+  private void consume() {
+    var sequence = 0L;
+    var idleCount = 0;
+
+    while (!closed || sequence < closedSequence) {
+      final var index = (int) (sequence & mask);
+
+      if (publishedSequences.getAcquire(index) != sequence) {
+        idle(idleCount, index, sequence);
+
+        idleCount = Math.min(idleCount + 1, SPIN_TRIES);
+        continue;
+      }
+
+      final var event = slots[index];
+
+      // Free the slot before propagating, producers waiting for capacity can continue
+      slots[index] = null;
+      consumedSequence.setRelease(++sequence);
+
+      idleCount = 0;
+
+      try {
+        propagateEvent(event);
+      } catch (RuntimeException e) {
+        logger.error("Could not propagate event '{}'", event.getName(), e);
+      }
+    }
+  }
+
+  /**
+   * Waits for the slot of a claimed sequence number to be freed by the consumer, according to the wait strategy.
+   * <p>
+   * The consumer does not track waiting producers, producers using the blocking wait strategy park for a short time instead.
+   *
+   * @param sequence Claimed sequence number.
+   */
+  private void awaitFreeSlot(long sequence) {
+    var idleCount = 0;
+
+    while (sequence - consumedSequence.get() >= slots.length) {
+      switch (waitStrategy) {
+        case BUSY_SPIN -> Thread.onSpinWait();
+        case YIELDING -> {
+          if (idleCount < SPIN_TRIES) {
+            Thread.onSpinWait();
+          } else {
+            Thread.yield();
+          }
+        }
+        case BLOCKING -> LockSupport.parkNanos(this, PRODUCER_PARK_TIME_IN_NS);
+      }
+
+      idleCount = Math.min(idleCount + 1, SPIN_TRIES);
+    }
+  }
+
+  /**
+   * Waits for an event to be published, according to the wait strategy.
+   *
+   * @param idleCount Number of times waited for the expected event so far.
+   * @param index     Index of the slot the expected event is published to.
+   * @param sequence  Sequence number of the expected event.
+   */
+  private void idle(int idleCount, int index, long sequence) {
+    switch (waitStrategy) {
+      case BUSY_SPIN -> Thread.onSpinWait();
+      case YIELDING -> {
+        if (idleCount < SPIN_TRIES) {
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+      }
+      case BLOCKING -> {
+        consumerParked = true;
+
+        // Check again after announcing being parked, a producer publishing afterward unparks the consumer
+        if (publishedSequences.get(index) != sequence && !closed) {
+          LockSupport.park(this);
+        }
+
+        consumerParked = false;
+      }
+    }
+  }
+
+  /**
+   * Wait strategy, decides how the consumer waits for events to be published.
+   */
+  public enum WaitStrategy {
+    /**
+     * The consumer and waiting producers spin continuously, lowest latency at the cost of occupying a core.
+     */
+    BUSY_SPIN,
+
+    /**
+     * The consumer and waiting producers spin for a while and then yield their core to other threads.
+     */
+    YIELDING,
+
+    /**
+     * The consumer parks until an event is published, producers need to unpark the consumer. Producers waiting for a free slot park
+     * repeatedly for a short time.
+     */
+    BLOCKING
+  }
+
+  /**
+   * Ring buffer event handler parameters.
+   *
+   * @param capacity        Number of slots in the ring buffer, must be a power of two.
+   * @param waitStrategy    Wait strategy of the consumer.
+   * @param deliveryThreads Number of delivery threads, or zero to propagate events on the consumer thread.
+   */
+  public record Parameters(
+      int capacity,
+      WaitStrategy waitStrategy,
+      int deliveryThreads
+  ) {
+
+    /**
+     * Initializes these parameters.
+     *
+     * @throws IllegalArgumentException If the capacity is not a positive power of two.
+     */
+    public Parameters {
+      if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+        throw new IllegalArgumentException("The ring buffer capacity must be a positive power of two");
+      }
+    }
+
+    /**
+     * Returns the default parameters, the consumer blocks while waiting for events and propagates events on its own thread.
+     *
+     * @return Default parameters.
+     */
+    public static Parameters defaults() {
+      return new Parameters(65536, WaitStrategy.BLOCKING, 0);
+    }
+  }
+}
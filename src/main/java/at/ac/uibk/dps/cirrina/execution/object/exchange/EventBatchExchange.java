@@ -0,0 +1,111 @@
+package at.ac.uibk.dps.cirrina.execution.object.exchange;
+
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event batch exchange, responsible for converting a batch of event objects to a consistent exchange format, using Protocol Buffers.
+ * <p>
+ * An event batch packs multiple events into a single envelope, the events are kept in order. See the exchange protos for a protocol
+ * description.
+ */
+public class EventBatchExchange {
+
+  private static final int EVENTS_TAG =
+      (EventProtos.EventBatch.EVENTS_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+  /**
+   * The event protos.
+   */
+  private final List<EventProtos.Event> eventProtos;
+
+  /**
+   * Initializes this event batch exchange instance.
+   *
+   * @param eventProtos Event protos, in order.
+   */
+  public EventBatchExchange(List<EventProtos.Event> eventProtos) {
+    this.eventProtos = eventProtos;
+  }
+
+  /**
+   * Construct an event batch exchange from byte data.
+   *
+   * @param data Byte data.
+   * @return Event batch exchange.
+   * @throws UnsupportedOperationException If the event batch could not be read.
+   */
+  public static EventBatchExchange fromBytes(byte[] data) throws UnsupportedOperationException {
+    try {
+      final var eventBatchProto = EventProtos.EventBatch.parseFrom(data);
+
+      return new EventBatchExchange(eventBatchProto.getEventsList());
+    } catch (InvalidProtocolBufferException e) {
+      throw new UnsupportedOperationException("Received an event batch with an unsupported payload", e);
+    }
+  }
+
+  /**
+   * Construct event objects from byte data, the events are decoded header-first and their event data is decoded lazily.
+   *
+   * @param data Byte data.
+   * @return Event objects, in order.
+   * @throws UnsupportedOperationException If the event batch could not be read.
+   * @throws UnsupportedOperationException If an event has an unrecognized channel.
+   */
+  public static List<Event> eventsFromBytes(byte[] data) throws UnsupportedOperationException {
+    try {
+      final var input = CodedInputStream.newInstance(data);
+      final var events = new ArrayList<Event>();
+
+      for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+        if (tag == EVENTS_TAG) {
+          events.add(EventExchange.eventFromBytes(input.readByteArray()));
+        } else {
+          input.skipField(tag);
+        }
+      }
+
+      return events;
+    } catch (IOException e) {
+      throw new UnsupportedOperationException("Received an event batch with an unsupported payload", e);
+    }
+  }
+
+  /**
+   * Converts this exchange instance to bytes.
+   *
+   * @return Bytes.
+   */
+  public byte[] toBytes() {
+    return toProto().toByteArray();
+  }
+
+  /**
+   * Returns a proto from this exchange.
+   *
+   * @return Proto.
+   */
+  public EventProtos.EventBatch toProto() {
+    return EventProtos.EventBatch.newBuilder()
+        .addAllEvents(eventProtos)
+        .build();
+  }
+
+  /**
+   * Returns the event objects.
+   *
+   * @return Event objects, in order.
+   * @throws UnsupportedOperationException If an event has an unrecognized channel.
+   */
+  public List<Event> getEvents() throws UnsupportedOperationException {
+    return eventProtos.stream()
+        .map(EventExchange::fromProto)
+        .toList();
+  }
+}
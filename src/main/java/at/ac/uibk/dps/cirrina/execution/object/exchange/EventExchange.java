@@ -3,15 +3,35 @@ package at.ac.uibk.dps.cirrina.execution.object.exchange;
 import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Event exchange, responsible for converting an event object to a consistent exchange format, using Protocol Buffers.
  * <p>
+ * Events read from byte data are decoded header-first, only the created time, ID, name, channel and time to live are decoded immediately.
+ * The event data is skipped and only decoded once it is first requested, events that do not trigger any transition never have their event
+ * data decoded.
+ * <p>
  * See the exchange protos for a protocol description.
  */
 public class EventExchange {
 
+  private static final int CREATED_TIME_TAG = tagOf(EventProtos.Event.CREATEDTIME_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED64);
+
+  private static final int ID_TAG = tagOf(EventProtos.Event.ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+  private static final int NAME_TAG = tagOf(EventProtos.Event.NAME_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+  private static final int CHANNEL_TAG = tagOf(EventProtos.Event.CHANNEL_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+
+  private static final int TTL_TAG = tagOf(EventProtos.Event.TTL_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+
+  private static final int DATA_TAG = tagOf(EventProtos.Event.DATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
   /**
    * The event object.
    */
@@ -27,7 +47,7 @@ public class EventExchange {
   }
 
   /**
-   * Construct an event exchange from byte data.
+   * Construct an event exchange from byte data, the event data is decoded lazily.
    *
    * @param data Byte data.
    * @return Event exchange.
@@ -35,12 +55,57 @@ public class EventExchange {
    * @throws UnsupportedOperationException If the event has an unrecognized channel.
    */
   public static EventExchange fromBytes(byte[] data) throws UnsupportedOperationException {
+    return new EventExchange(eventFromBytes(data));
+  }
+
+  /**
+   * Construct an event object from byte data, only the header fields are decoded and the event data is decoded once first requested.
+   *
+   * @param data Byte data.
+   * @return Event object.
+   * @throws UnsupportedOperationException If the event could not be read.
+   * @throws UnsupportedOperationException If the event has an unrecognized channel.
+   */
+  static Event eventFromBytes(byte[] data) throws UnsupportedOperationException {
     try {
-      final var eventProto = EventProtos.Event.parseFrom(data);
+      final var input = CodedInputStream.newInstance(data);
+
+      var createdTime = 0.0;
+      var id = "";
+      var name = "";
+      var channelNumber = 0;
+      var ttlInMs = 0L;
+
+      // Read the header fields and skip all other fields, the event data is not parsed
+      for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+        if (tag == CREATED_TIME_TAG) {
+          createdTime = input.readDouble();
+        } else if (tag == ID_TAG) {
+          id = input.readStringRequireUtf8();
+        } else if (tag == NAME_TAG) {
+          name = input.readStringRequireUtf8();
+        } else if (tag == CHANNEL_TAG) {
+          channelNumber = input.readEnum();
+        } else if (tag == TTL_TAG) {
+          ttlInMs = input.readInt64();
+        } else {
+          input.skipField(tag);
+        }
+      }
 
-      return new EventExchange(fromProto(eventProto));
-    } catch (InvalidProtocolBufferException e) {
+      final var channelProto = EventProtos.Event.Channel.forNumber(channelNumber);
+
+      if (channelProto == null) {
+        throw new UnsupportedOperationException("Event has an unrecognized channel");
+      }
+
+      final var channel = EventChannel.valueOf(channelProto.name());
+
+      return new Event(createdTime, id, name, channel, () -> dataFromBytes(data), ttlInMs);
+    } catch (IOException e) {
       throw new UnsupportedOperationException("Received an event with an unsupported payload", e);
+    } catch (IllegalArgumentException e) {
+      throw new UnsupportedOperationException("Event has an unrecognized channel", e);
     }
   }
 
@@ -61,12 +126,50 @@ public class EventExchange {
           .map(ContextVariableExchange::fromProto)
           .toList();
 
-      return new Event(createdTime, id, name, channel, data);
+      return new Event(createdTime, id, name, channel, () -> data, proto.getTtl());
     } catch (IllegalArgumentException e) {
       throw new UnsupportedOperationException("Event has an unrecognized channel", e);
     }
   }
 
+  /**
+   * Decodes the event data of an event from byte data, all fields other than the event data are skipped.
+   *
+   * @param data Byte data.
+   * @return Event data.
+   * @throws UnsupportedOperationException If the event data could not be read.
+   */
+  private static List<ContextVariable> dataFromBytes(byte[] data) throws UnsupportedOperationException {
+    try {
+      final var input = CodedInputStream.newInstance(data);
+      final var contextVariables = new ArrayList<ContextVariable>();
+
+      for (var tag = input.readTag(); tag != 0; tag = input.readTag()) {
+        if (tag == DATA_TAG) {
+          contextVariables.add(ContextVariableExchange.fromProto(
+              ContextVariableProtos.ContextVariable.parseFrom(input.readBytes())));
+        } else {
+          input.skipField(tag);
+        }
+      }
+
+      return List.copyOf(contextVariables);
+    } catch (IOException e) {
+      throw new UnsupportedOperationException("Received event data with an unsupported payload", e);
+    }
+  }
+
+  /**
+   * Returns the tag of a field.
+   *
+   * @param fieldNumber Field number.
+   * @param wireType    Wire type.
+   * @return Tag.
+   */
+  private static int tagOf(int fieldNumber, int wireType) {
+    return (fieldNumber << 3) | wireType;
+  }
+
   /**
    * Converts this exchange instance to bytes.
    * <p>
@@ -76,20 +179,23 @@ public class EventExchange {
    * @throws IllegalStateException If the event has unevaluated data.
    */
   public byte[] toBytes() throws IllegalStateException {
-    if (event.getData().stream().anyMatch(ContextVariable::isLazy)) {
-      throw new IllegalStateException("Event '%s' has unevaluated event data".formatted(event.getName()));
-    }
-
     return toProto().toByteArray();
   }
 
   /**
    * Returns a proto from this exchange.
+   * <p>
+   * Event data must be evaluated before conversion to a proto can succeed.
    *
    * @return Proto.
+   * @throws IllegalStateException         If the event has unevaluated data.
    * @throws UnsupportedOperationException If the event has an unrecognized channel.
    */
-  public EventProtos.Event toProto() throws UnsupportedOperationException {
+  public EventProtos.Event toProto() throws IllegalStateException, UnsupportedOperationException {
+    if (event.getData().stream().anyMatch(ContextVariable::isLazy)) {
+      throw new IllegalStateException("Event '%s' has unevaluated event data".formatted(event.getName()));
+    }
+
     EventProtos.Event.Channel channel;
 
     try {
@@ -108,6 +214,7 @@ public class EventExchange {
         .setName(event.getName())
         .setChannel(channel)
         .addAllData(dataProtos)
+        .setTtl(event.getTtlInMs())
         .build();
   }
 
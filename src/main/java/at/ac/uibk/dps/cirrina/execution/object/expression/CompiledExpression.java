@@ -0,0 +1,53 @@
+package at.ac.uibk.dps.cirrina.execution.object.expression;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionCompiler.FallbackException;
+import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionCompiler.Node;
+
+/**
+ * Compiled expression, an expression that is evaluated by compiled nodes and falls back to a JEXL expression whenever the compiled nodes
+ * cannot produce the result.
+ *
+ * @see ExpressionCompiler
+ */
+final class CompiledExpression extends Expression {
+
+  /**
+   * Compiled root node.
+   */
+  private final Node root;
+
+  /**
+   * JEXL expression of the same source, used as a fallback.
+   */
+  private final JexlExpression fallback;
+
+  /**
+   * Initializes the compiled expression.
+   *
+   * @param root     Compiled root node.
+   * @param fallback JEXL expression of the same source.
+   */
+  CompiledExpression(Node root, JexlExpression fallback) {
+    super(fallback.getSource());
+
+    this.root = root;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Executes this expression, producing a value.
+   *
+   * @param extent Extent for resolving variables.
+   * @return Result of the expression.
+   * @throws UnsupportedOperationException If the expression could not be executed.
+   */
+  @Override
+  public Object execute(Extent extent) throws UnsupportedOperationException {
+    try {
+      return root.evaluate(extent);
+    } catch (FallbackException e) {
+      return fallback.execute(extent);
+    }
+  }
+}
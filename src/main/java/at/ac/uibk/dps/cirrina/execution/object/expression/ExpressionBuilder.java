@@ -1,13 +1,33 @@
 package at.ac.uibk.dps.cirrina.execution.object.expression;
 
 import at.ac.uibk.dps.cirrina.csml.description.ExpressionDescription;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Expression builder, builds an expression based on an expression source string. Built expressions are cached, repeatedly building the same
  * expression will return the same expression.
+ * <p>
+ * The cache is bounded and shared by all jobs and state machine instances, the least recently used expressions are evicted first.
  */
 public final class ExpressionBuilder {
 
+  /**
+   * Maximum number of cached expressions.
+   */
+  private static final int CACHE_SIZE = 4096;
+
+  /**
+   * Expression cache, contains built expressions by source string.
+   */
+  private static final Cache<String, Expression> EXPRESSION_CACHE = CacheBuilder.newBuilder()
+      .maximumSize(CACHE_SIZE)
+      .recordStats()
+      .build();
+
   private ExpressionDescription expressionDescription;
 
   private ExpressionBuilder(ExpressionDescription expressionDescription) {
@@ -19,12 +39,58 @@ public final class ExpressionBuilder {
   }
 
   /**
-   * Builds the collaborative state machine.
+   * Returns the statistics of the expression cache.
+   *
+   * @return Expression cache statistics.
+   */
+  public static CacheStats cacheStats() {
+    return EXPRESSION_CACHE.stats();
+  }
+
+  /**
+   * Returns the number of cached expressions.
+   *
+   * @return Expression cache size.
+   */
+  public static long cacheSize() {
+    return EXPRESSION_CACHE.size();
+  }
+
+  /**
+   * Builds the expression, or returns the cached expression if the same source string has been built before.
    *
    * @return Built expression.
-   * @throws IllegalArgumentException In case the expression could not be built.
+   * @throws UnsupportedOperationException In case the expression could not be built.
+   */
+  public Expression build() throws UnsupportedOperationException {
+    final var source = expressionDescription.expression;
+
+    try {
+      return EXPRESSION_CACHE.get(source, () -> compile(source));
+    } catch (UncheckedExecutionException | ExecutionException e) {
+      // Expressions that cannot be parsed are not cached, rethrow the original exception
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+
+      throw new UnsupportedOperationException("The expression '%s' could not be built".formatted(source), e.getCause());
+    }
+  }
+
+  /**
+   * Compiles an expression. Expressions that are part of the subset supported by the expression compiler are evaluated by compiled nodes,
+   * other expressions are evaluated by JEXL.
+   *
+   * @param source Source string.
+   * @return Expression.
+   * @throws UnsupportedOperationException If the expression could not be parsed.
    */
-  public Expression build() throws IllegalArgumentException {
-    return new JexlExpression(expressionDescription.expression);
+  private static Expression compile(String source) throws UnsupportedOperationException {
+    // Always parsed by JEXL, which reports invalid expressions and serves as the fallback of compiled expressions
+    final var jexlExpression = new JexlExpression(source);
+
+    return ExpressionCompiler.compile(source)
+        .<Expression>map(root -> new CompiledExpression(root, jexlExpression))
+        .orElse(jexlExpression);
   }
 }
@@ -0,0 +1,665 @@
+package at.ac.uibk.dps.cirrina.execution.object.expression;
+
+import at.ac.uibk.dps.cirrina.execution.object.context.Context;
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Expression compiler, compiles the common subset of CSML expressions into a tree of specialized nodes that is evaluated without the JEXL
+ * interpreter.
+ * <p>
+ * The supported subset consists of integer, floating point, string and boolean literals, variable references (including event data
+ * variables), arithmetic, comparisons and boolean logic. Any other construct is not compiled, such expressions are executed by JEXL only.
+ * <p>
+ * Compiled nodes follow the JEXL semantics for the operand types they handle: integer arithmetic is performed on longs and narrowed back to
+ * integers, mixed arithmetic is performed on doubles and strings are only concatenated with strings. Whenever an operand has a type that is
+ * not handled, a variable is not defined, or the JEXL result would depend on behavior not modelled here (overflow, division by zero, NaN),
+ * evaluation falls back to the JEXL expression. As the subset is free of side effects, the fallback can safely re-evaluate the whole
+ * expression.
+ */
+final class ExpressionCompiler {
+
+  /**
+   * Words that have a meaning in JEXL, identifiers with these names are not compiled.
+   */
+  private static final Set<String> RESERVED_WORDS = Set.of(
+      "null", "NaN", "empty", "size", "new", "var", "let", "const", "function", "return", "if", "else", "for", "while", "do", "break",
+      "continue", "and", "or", "not", "eq", "ne", "lt", "le", "gt", "ge", "div", "mod", "in", "instanceof", "import", "pragma", "switch",
+      "case", "default", "try", "catch", "finally", "throw", "def", "this"
+  );
+
+  private final String source;
+
+  private final List<Token> tokens = new ArrayList<>();
+
+  private int position = 0;
+
+  private ExpressionCompiler(String source) {
+    this.source = source;
+  }
+
+  /**
+   * Compiles an expression source string.
+   * <p>
+   * The source string is expected to have been parsed by JEXL successfully.
+   *
+   * @param source Source string.
+   * @return Compiled root node or empty if the expression is not part of the supported subset.
+   */
+  static Optional<Node> compile(String source) {
+    final var compiler = new ExpressionCompiler(source);
+
+    try {
+      compiler.tokenize();
+
+      final var root = compiler.parseOr();
+
+      if (compiler.peek().type() != TokenType.END) {
+        return Optional.empty();
+      }
+
+      return Optional.of(root);
+    } catch (UnsupportedExpressionException e) {
+      return Optional.empty();
+    }
+  }
+
+  private void tokenize() throws UnsupportedExpressionException {
+    var i = 0;
+
+    while (i < source.length()) {
+      final var c = source.charAt(i);
+
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+        ++i;
+      } else if (c >= '0' && c <= '9') {
+        i = tokenizeNumber(i);
+      } else if (c == '\'' || c == '"') {
+        i = tokenizeString(i, c);
+      } else if (isIdentifierStart(c)) {
+        var end = i + 1;
+
+        while (end < source.length() && isIdentifierPart(source.charAt(end))) {
+          ++end;
+        }
+
+        tokens.add(new Token(TokenType.IDENTIFIER, source.substring(i, end)));
+        i = end;
+      } else {
+        i = tokenizeOperator(i);
+      }
+    }
+
+    tokens.add(new Token(TokenType.END, ""));
+  }
+
+  private int tokenizeNumber(int start) throws UnsupportedExpressionException {
+    var end = start;
+
+    while (end < source.length() && isDigit(source.charAt(end))) {
+      ++end;
+    }
+
+    var isReal = false;
+
+    if (end < source.length() && source.charAt(end) == '.') {
+      // A real literal requires digits following the period
+      if (end + 1 >= source.length() || !isDigit(source.charAt(end + 1))) {
+        throw new UnsupportedExpressionException();
+      }
+
+      isReal = true;
+      ++end;
+
+      while (end < source.length() && isDigit(source.charAt(end))) {
+        ++end;
+      }
+    }
+
+    // Suffixes, exponents and hexadecimal literals are not supported
+    if (end < source.length() && (isIdentifierPart(source.charAt(end)) || source.charAt(end) == '.')) {
+      throw new UnsupportedExpressionException();
+    }
+
+    final var text = source.substring(start, end);
+
+    // Integer literals with a leading zero are octal literals in JEXL
+    if (!isReal && text.length() > 1 && text.charAt(0) == '0') {
+      throw new UnsupportedExpressionException();
+    }
+
+    tokens.add(new Token(isReal ? TokenType.REAL : TokenType.INTEGER, text));
+
+    return end;
+  }
+
+  private int tokenizeString(int start, char quote) throws UnsupportedExpressionException {
+    var end = start + 1;
+
+    while (end < source.length() && source.charAt(end) != quote) {
+      // Escape sequences are not supported
+      if (source.charAt(end) == '\\') {
+        throw new UnsupportedExpressionException();
+      }
+      ++end;
+    }
+
+    if (end >= source.length()) {
+      throw new UnsupportedExpressionException();
+    }
+
+    tokens.add(new Token(TokenType.STRING, source.substring(start + 1, end)));
+
+    return end + 1;
+  }
+
+  private int tokenizeOperator(int start) throws UnsupportedExpressionException {
+    final var c = source.charAt(start);
+    final var next = start + 1 < source.length() ? source.charAt(start + 1) : '\0';
+
+    final var operator = switch (c) {
+      case '|' -> next == '|' ? "||" : null;
+      case '&' -> next == '&' ? "&&" : null;
+      case '=' -> next == '=' ? "==" : null;
+      case '!' -> next == '=' ? "!=" : "!";
+      case '<' -> next == '=' ? "<=" : "<";
+      case '>' -> next == '=' ? ">=" : ">";
+      case '+', '-', '*', '/', '%', '(', ')' -> String.valueOf(c);
+      default -> null;
+    };
+
+    if (operator == null) {
+      throw new UnsupportedExpressionException();
+    }
+
+    tokens.add(new Token(TokenType.OPERATOR, operator));
+
+    return start + operator.length();
+  }
+
+  private Node parseOr() throws UnsupportedExpressionException {
+    var left = parseAnd();
+
+    while (accept("||")) {
+      left = new OrNode(left, parseAnd());
+    }
+
+    return left;
+  }
+
+  private Node parseAnd() throws UnsupportedExpressionException {
+    var left = parseEquality();
+
+    while (accept("&&")) {
+      left = new AndNode(left, parseEquality());
+    }
+
+    return left;
+  }
+
+  private Node parseEquality() throws UnsupportedExpressionException {
+    var left = parseRelational();
+
+    while (true) {
+      if (accept("==")) {
+        left = new EqualityNode(left, parseRelational(), false);
+      } else if (accept("!=")) {
+        left = new EqualityNode(left, parseRelational(), true);
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private Node parseRelational() throws UnsupportedExpressionException {
+    var left = parseAdditive();
+
+    while (true) {
+      final var operator = peek().text();
+
+      if (peek().type() == TokenType.OPERATOR
+          && (operator.equals("<") || operator.equals("<=") || operator.equals(">") || operator.equals(">="))) {
+        ++position;
+        left = new RelationalNode(left, parseAdditive(), operator);
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private Node parseAdditive() throws UnsupportedExpressionException {
+    var left = parseMultiplicative();
+
+    while (true) {
+      if (accept("+")) {
+        left = new ArithmeticNode(left, parseMultiplicative(), '+');
+      } else if (accept("-")) {
+        left = new ArithmeticNode(left, parseMultiplicative(), '-');
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private Node parseMultiplicative() throws UnsupportedExpressionException {
+    var left = parseUnary();
+
+    while (true) {
+      if (accept("*")) {
+        left = new ArithmeticNode(left, parseUnary(), '*');
+      } else if (accept("/")) {
+        left = new ArithmeticNode(left, parseUnary(), '/');
+      } else if (accept("%")) {
+        left = new ArithmeticNode(left, parseUnary(), '%');
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private Node parseUnary() throws UnsupportedExpressionException {
+    if (accept("!")) {
+      return new NotNode(parseUnary());
+    }
+    if (accept("-")) {
+      return new NegateNode(parseUnary());
+    }
+
+    return parsePrimary();
+  }
+
+  private Node parsePrimary() throws UnsupportedExpressionException {
+    final var token = peek();
+
+    switch (token.type()) {
+      case INTEGER -> {
+        ++position;
+
+        // Integer literals that do not fit an integer are long or big integer literals in JEXL
+        try {
+          return new LiteralNode(Integer.parseInt(token.text()));
+        } catch (NumberFormatException e) {
+          throw new UnsupportedExpressionException();
+        }
+      }
+      case REAL -> {
+        ++position;
+
+        return new LiteralNode(Double.parseDouble(token.text()));
+      }
+      case STRING -> {
+        ++position;
+
+        return new LiteralNode(token.text());
+      }
+      case IDENTIFIER -> {
+        ++position;
+
+        if (token.text().equals("true")) {
+          return new LiteralNode(Boolean.TRUE);
+        }
+        if (token.text().equals("false")) {
+          return new LiteralNode(Boolean.FALSE);
+        }
+        if (RESERVED_WORDS.contains(token.text())) {
+          throw new UnsupportedExpressionException();
+        }
+
+        // Function calls, namespaces and member access are not supported
+        if (peek().type() == TokenType.OPERATOR && peek().text().equals("(")) {
+          throw new UnsupportedExpressionException();
+        }
+
+        return new VariableNode(token.text());
+      }
+      case OPERATOR -> {
+        if (accept("(")) {
+          final var node = parseOr();
+
+          if (!accept(")")) {
+            throw new UnsupportedExpressionException();
+          }
+
+          return node;
+        }
+      }
+    }
+
+    throw new UnsupportedExpressionException();
+  }
+
+  private Token peek() {
+    return tokens.get(position);
+  }
+
+  private boolean accept(String operator) {
+    final var token = peek();
+
+    if (token.type() == TokenType.OPERATOR && token.text().equals(operator)) {
+      ++position;
+      return true;
+    }
+
+    return false;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierStart(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return isIdentifierStart(c) || isDigit(c);
+  }
+
+  /**
+   * Returns whether a value is an integer or long, values of these types are operated on as longs.
+   */
+  private static boolean isLongPrecision(Object value) {
+    return value instanceof Integer || value instanceof Long;
+  }
+
+  /**
+   * Returns whether a value is an integer, long or double.
+   */
+  private static boolean isNumber(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Double;
+  }
+
+  /**
+   * Narrows the result of a long operation, an integer is returned if no operand is a long and the result fits an integer.
+   */
+  private static Object narrow(Object left, Object right, long result) {
+    if (!(left instanceof Long || right instanceof Long) && (int) result == result) {
+      return (int) result;
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the double value of a number, fails over if the value is not a number.
+   */
+  private static double toDouble(Object value) {
+    final var result = ((Number) value).doubleValue();
+
+    if (Double.isNaN(result)) {
+      throw FallbackException.INSTANCE;
+    }
+
+    return result;
+  }
+
+  /**
+   * Compiled expression node.
+   */
+  interface Node {
+
+    /**
+     * Evaluates this node.
+     *
+     * @param extent Extent for resolving variables.
+     * @return Result.
+     * @throws FallbackException If the expression has to be evaluated by JEXL instead.
+     */
+    Object evaluate(Extent extent) throws FallbackException;
+  }
+
+  /**
+   * Thrown if a compiled expression cannot be evaluated and the expression has to be evaluated by JEXL instead. Carries no stack trace, a
+   * single instance is shared.
+   */
+  static final class FallbackException extends RuntimeException {
+
+    static final FallbackException INSTANCE = new FallbackException();
+
+    private FallbackException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Thrown during compilation if the expression is not part of the supported subset.
+   */
+  private static final class UnsupportedExpressionException extends Exception {
+
+    private UnsupportedExpressionException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private enum TokenType {
+    INTEGER,
+    REAL,
+    STRING,
+    IDENTIFIER,
+    OPERATOR,
+    END
+  }
+
+  private record Token(TokenType type, String text) {
+
+  }
+
+  private record LiteralNode(Object value) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      return value;
+    }
+  }
+
+  private record VariableNode(String name) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      final var value = extent.lookup(name);
+
+      // An undefined variable is reported by JEXL
+      if (value == Context.ABSENT) {
+        throw FallbackException.INSTANCE;
+      }
+
+      return value;
+    }
+  }
+
+  private record NotNode(Node operand) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      if (operand.evaluate(extent) instanceof Boolean value) {
+        return !value;
+      }
+
+      throw FallbackException.INSTANCE;
+    }
+  }
+
+  private record NegateNode(Node operand) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      final var value = operand.evaluate(extent);
+
+      if (value instanceof Integer i && i != Integer.MIN_VALUE) {
+        return -i;
+      }
+      if (value instanceof Long l && l != Long.MIN_VALUE) {
+        return -l;
+      }
+      if (value instanceof Double d) {
+        return -d;
+      }
+
+      throw FallbackException.INSTANCE;
+    }
+  }
+
+  private record AndNode(Node left, Node right) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      if (!(left.evaluate(extent) instanceof Boolean leftValue)) {
+        throw FallbackException.INSTANCE;
+      }
+      if (!leftValue) {
+        return Boolean.FALSE;
+      }
+      if (!(right.evaluate(extent) instanceof Boolean rightValue)) {
+        throw FallbackException.INSTANCE;
+      }
+
+      return rightValue;
+    }
+  }
+
+  private record OrNode(Node left, Node right) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      if (!(left.evaluate(extent) instanceof Boolean leftValue)) {
+        throw FallbackException.INSTANCE;
+      }
+      if (leftValue) {
+        return Boolean.TRUE;
+      }
+      if (!(right.evaluate(extent) instanceof Boolean rightValue)) {
+        throw FallbackException.INSTANCE;
+      }
+
+      return rightValue;
+    }
+  }
+
+  private record ArithmeticNode(Node left, Node right, char operator) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      final var leftValue = left.evaluate(extent);
+      final var rightValue = right.evaluate(extent);
+
+      if (isLongPrecision(leftValue) && isLongPrecision(rightValue)) {
+        final var x = ((Number) leftValue).longValue();
+        final var y = ((Number) rightValue).longValue();
+
+        try {
+          final var result = switch (operator) {
+            case '+' -> Math.addExact(x, y);
+            case '-' -> Math.subtractExact(x, y);
+            case '*' -> Math.multiplyExact(x, y);
+            case '/' -> {
+              if (y == 0 || (x == Long.MIN_VALUE && y == -1)) {
+                throw FallbackException.INSTANCE;
+              }
+              yield x / y;
+            }
+            case '%' -> {
+              if (y == 0) {
+                throw FallbackException.INSTANCE;
+              }
+              yield x % y;
+            }
+            default -> throw FallbackException.INSTANCE;
+          };
+
+          return narrow(leftValue, rightValue, result);
+        } catch (ArithmeticException e) {
+          // Overflowing results are big integers in JEXL
+          throw FallbackException.INSTANCE;
+        }
+      }
+
+      if (isNumber(leftValue) && isNumber(rightValue)) {
+        final var x = toDouble(leftValue);
+        final var y = toDouble(rightValue);
+
+        return switch (operator) {
+          case '+' -> x + y;
+          case '-' -> x - y;
+          case '*' -> x * y;
+          case '/' -> {
+            if (y == 0.0) {
+              throw FallbackException.INSTANCE;
+            }
+            yield x / y;
+          }
+          case '%' -> {
+            if (y == 0.0) {
+              throw FallbackException.INSTANCE;
+            }
+            yield x % y;
+          }
+          default -> throw FallbackException.INSTANCE;
+        };
+      }
+
+      if (operator == '+' && leftValue instanceof String x && rightValue instanceof String y) {
+        return x.concat(y);
+      }
+
+      throw FallbackException.INSTANCE;
+    }
+  }
+
+  private record EqualityNode(Node left, Node right, boolean negate) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      final var leftValue = left.evaluate(extent);
+      final var rightValue = right.evaluate(extent);
+
+      final boolean result;
+
+      if (isLongPrecision(leftValue) && isLongPrecision(rightValue)) {
+        result = ((Number) leftValue).longValue() == ((Number) rightValue).longValue();
+      } else if (isNumber(leftValue) && isNumber(rightValue)) {
+        result = toDouble(leftValue) == toDouble(rightValue);
+      } else if ((leftValue instanceof String && rightValue instanceof String)
+          || (leftValue instanceof Boolean && rightValue instanceof Boolean)) {
+        result = leftValue.equals(rightValue);
+      } else {
+        throw FallbackException.INSTANCE;
+      }
+
+      return result != negate;
+    }
+  }
+
+  private record RelationalNode(Node left, Node right, String operator) implements Node {
+
+    @Override
+    public Object evaluate(Extent extent) {
+      final var leftValue = left.evaluate(extent);
+      final var rightValue = right.evaluate(extent);
+
+      final int comparison;
+
+      if (isLongPrecision(leftValue) && isLongPrecision(rightValue)) {
+        comparison = Long.compare(((Number) leftValue).longValue(), ((Number) rightValue).longValue());
+      } else if (isNumber(leftValue) && isNumber(rightValue)) {
+        final var x = toDouble(leftValue);
+        final var y = toDouble(rightValue);
+
+        // Compared as primitives, -0.0 and 0.0 are equal
+        comparison = x < y ? -1 : (x > y ? 1 : 0);
+      } else {
+        throw FallbackException.INSTANCE;
+      }
+
+      return switch (operator) {
+        case "<" -> comparison < 0;
+        case "<=" -> comparison <= 0;
+        case ">" -> comparison > 0;
+        case ">=" -> comparison >= 0;
+        default -> throw FallbackException.INSTANCE;
+      };
+    }
+  }
+}
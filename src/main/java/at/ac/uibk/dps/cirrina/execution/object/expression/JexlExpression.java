@@ -1,6 +1,8 @@
 package at.ac.uibk.dps.cirrina.execution.object.expression;
 
+import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import jakarta.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -80,15 +82,33 @@ public class JexlExpression extends Expression {
 
   /**
    * JEXL context, which has access to all variables within an Extent.
+   * <p>
+   * The most recently looked up variable is memoized, a has() followed by a get() of the same variable resolves it only once. A JEXL
+   * context is created per execution, it is never shared between threads.
    *
    * @see Extent
    */
-  private record ExtentJexlContext(Extent extent) implements JexlContext {
+  private static final class ExtentJexlContext implements JexlContext {
+
+    private final Extent extent;
+
+    private @Nullable String lastKey = null;
+
+    private Object lastValue = Context.ABSENT;
+
+    ExtentJexlContext(Extent extent) {
+      this.extent = extent;
+    }
 
     @Override
     public Object get(String key) {
-      return extent.resolve(key)
-          .orElseThrow(() -> new NoSuchElementException(String.format("Variable not found: %s", key)));
+      final var value = lookup(key);
+
+      if (value == Context.ABSENT) {
+        throw new NoSuchElementException(String.format("Variable not found: %s", key));
+      }
+
+      return value;
     }
 
     @Override
@@ -97,7 +117,16 @@ public class JexlExpression extends Expression {
 
     @Override
     public boolean has(String key) {
-      return extent.resolve(key).isPresent();
+      return lookup(key) != Context.ABSENT;
+    }
+
+    private Object lookup(String key) {
+      if (!key.equals(lastKey)) {
+        lastValue = extent.lookup(key);
+        lastKey = key;
+      }
+
+      return lastValue;
     }
   }
 }
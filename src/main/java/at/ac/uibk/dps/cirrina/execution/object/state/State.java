@@ -8,10 +8,10 @@ import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
-import java.util.ArrayList;
+import jakarta.annotation.Nullable;
 import java.util.List;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 
 public final class State implements Scope {
 
@@ -21,14 +21,19 @@ public final class State implements Scope {
 
   private final StateMachine parent;
 
+  private final Extent extent;
+
   public State(StateClass stateClassObject, StateMachine parent) {
     this.stateClassObject = stateClassObject;
     this.parent = parent;
+
+    // The contexts in scope do not change for the lifetime of the state instance
+    this.extent = parent.getExtent().extend(localContext);
   }
 
   @Override
   public Extent getExtent() {
-    return parent.getExtent().extend(localContext);
+    return extent;
   }
 
   @Override
@@ -40,39 +45,19 @@ public final class State implements Scope {
     return stateClassObject;
   }
 
-  public List<ActionCommand> getEntryActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getEntryActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getEntryActionCommands(CommandFactory commandFactory, @Nullable Event raisingEvent) {
+    return commandFactory.createActionCommands(stateClassObject.getEntryActions(), raisingEvent);
   }
 
-  public List<ActionCommand> getWhileActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getWhileActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getWhileActionCommands(CommandFactory commandFactory, @Nullable Event raisingEvent) {
+    return commandFactory.createActionCommands(stateClassObject.getWhileActions(), raisingEvent);
   }
 
-  public List<ActionCommand> getExitActionCommands(CommandFactory commandFactory) {
-    List<ActionCommand> actionCommands = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getExitActionGraph()).forEachRemaining(
-        action -> actionCommands.add(commandFactory.createActionCommand(action)));
-
-    return actionCommands;
+  public List<ActionCommand> getExitActionCommands(CommandFactory commandFactory, @Nullable Event raisingEvent) {
+    return commandFactory.createActionCommands(stateClassObject.getExitActions(), raisingEvent);
   }
 
   public List<TimeoutAction> getTimeoutActionObjects() {
-    List<TimeoutAction> timeoutActionObjects = new ArrayList<>();
-
-    new TopologicalOrderIterator<>(stateClassObject.getAfterActionGraph()).forEachRemaining(
-        timeoutActionObject -> timeoutActionObjects.add((TimeoutAction) timeoutActionObject));
-
-    return timeoutActionObjects;
+    return stateClassObject.getTimeoutActions();
   }
 }
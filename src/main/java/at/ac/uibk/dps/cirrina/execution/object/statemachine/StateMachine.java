@@ -1,5 +1,7 @@
 package at.ac.uibk.dps.cirrina.execution.object.statemachine;
 
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_DROPPED;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_EXPIRED;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_HANDLED;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_EVENTS_RECEIVED;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_INVOCATIONS;
@@ -7,6 +9,7 @@ import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.COUNTER_STATE_MA
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_DATA_LATENCY;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_INVOKE_LATENCY;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_ACTION_RAISE_LATENCY;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_QUEUE_DEPTH;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE;
 import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_RESPONSE_TIME_INCLUSIVE;
 
@@ -22,10 +25,12 @@ import at.ac.uibk.dps.cirrina.execution.command.Scope;
 import at.ac.uibk.dps.cirrina.execution.object.action.TimeoutAction;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextBuilder;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.object.context.EventDataContext;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
-import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventListener;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventQueue;
 import at.ac.uibk.dps.cirrina.execution.object.state.State;
 import at.ac.uibk.dps.cirrina.execution.object.transition.Transition;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
@@ -38,12 +43,17 @@ import io.opentelemetry.api.OpenTelemetry;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -73,7 +83,50 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   /**
    * Event queue, contains events received by the state machine.
    */
-  private final Queue<Event> eventQueue = new ConcurrentLinkedQueue<>();
+  private final EventQueue eventQueue;
+
+  /**
+   * Internal events raised by the thread executing this instance. Only accessed by the thread executing this instance and therefore not
+   * synchronized, internal events are processed before any event in the event queue.
+   */
+  private final Queue<Event> internalEvents = new ArrayDeque<>();
+
+  /**
+   * Batch of events taken from the event queue, reused for every batch and only accessed by the thread executing this instance.
+   */
+  private final List<Event> eventBatch = new ArrayList<>();
+
+  /**
+   * Maximum number of events taken from the event queue at once.
+   */
+  private final int maxEventBatchSize;
+
+  /**
+   * Time to live in milliseconds by event name, applies to events without a time to live of their own.
+   */
+  private final Map<String, Long> eventTtlsByName;
+
+  /**
+   * Time to live in milliseconds by event channel, applies to events without a time to live of their own or by event name.
+   */
+  private final Map<EventChannel, Long> eventTtlsByChannel;
+
+  /**
+   * Event queue lock, used for waiting on and signalling the arrival of events. An explicit lock is used instead of an intrinsic monitor, a
+   * state machine instance executing on a virtual thread would otherwise pin its carrier thread while waiting.
+   */
+  private final ReentrantLock eventQueueLock = new ReentrantLock();
+
+  /**
+   * Signalled whenever an event is added to the event queue.
+   */
+  private final Condition eventQueueNotEmpty = eventQueueLock.newCondition();
+
+  /**
+   * Flag that indicates whether a step of this state machine instance is pending with the runtime scheduler. Only used when stepping, makes
+   * sure that at most one step of this instance is scheduled or executing at any time.
+   */
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
 
   /**
    * Parent runtime.
@@ -104,6 +157,11 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
   private final Context localContext;
 
+  /**
+   * Extent of this state machine instance, built once as the contexts in scope do not change for the lifetime of this instance.
+   */
+  private final Extent extent;
+
   private final Map<String, State> stateInstances;
 
   private final Gauges gauges;
@@ -112,7 +170,51 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
   private State activeState;
 
-  private List<Id> nestedStateMachineIds = new ArrayList<>();
+  /**
+   * Flag that indicates whether this state machine instance has been started, only used when stepping.
+   */
+  private boolean started = false;
+
+  /**
+   * Thread currently executing this instance, or null if this instance is not being executed.
+   */
+  private volatile @Nullable Thread executingThread = null;
+
+  /**
+   * Nested state machine instances, internal events are propagated to these directly.
+   */
+  private volatile List<StateMachine> nestedStateMachines = List.of();
+
+  /**
+   * State machine instance-scoped command factory, reused for the lifetime of this instance.
+   */
+  private final CommandFactory stateMachineCommandFactory;
+
+  /**
+   * State instance-scoped command factories by state instance, reused for the lifetime of this instance.
+   */
+  private final Map<State, CommandFactory> stateCommandFactories;
+
+  /**
+   * Event data context, exposes the data of the event being handled to the guards of the candidate on transitions.
+   */
+  private final EventDataContext eventDataContext = new EventDataContext(EVENT_DATA_VARIABLE_PREFIX);
+
+  /**
+   * Extent used for selecting on transitions, this instance's extent extended with the event data context.
+   */
+  private final Extent eventDataExtent;
+
+  /**
+   * Prefixed event data variable names by event data variable name, only accessed while handling events.
+   */
+  private final Map<String, String> eventDataVariableNames = new HashMap<>();
+
+  /**
+   * Work deque of pending action commands, reused for executing action commands while handling events. Timeout actions are executed on the
+   * timeout action manager's threads and use their own work deque.
+   */
+  private final Deque<ActionCommand> pendingActionCommands = new ArrayDeque<>();
 
   /**
    * Initializes this state machine instance object. A state machine instance is associated with a state machine object that describes its
@@ -159,6 +261,11 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       throw new IllegalStateException(); // This should not happen
     }
 
+    // Build the extent, which must be available before the state instances are constructed
+    extent = Optional.ofNullable(parentStateMachine)
+        .map(parent -> parent.getExtent().extend(localContext))
+        .orElseGet(() -> parentRuntime.getExtent().extend(localContext));
+
     // Construct state instances
     stateInstances = stateMachineClass.vertexSet().stream()
         .collect(Collectors.toMap(StateClass::getName, state -> new State(state, this)));
@@ -182,12 +289,44 @@ public final class StateMachine implements Runnable, EventListener, Scope {
     counters.addCounter(COUNTER_EVENTS_HANDLED);
     counters.addCounter(COUNTER_INVOCATIONS);
     counters.addCounter(COUNTER_STATE_MACHINE_INSTANCES);
+    counters.addCounter(COUNTER_EVENTS_DROPPED);
+    counters.addCounter(COUNTER_EVENTS_EXPIRED);
+
+    gauges.addGauge(GAUGE_EVENT_QUEUE_DEPTH);
+
+    // Create the event queue, dropped events are counted
+    final var configuration = parentRuntime.getConfiguration();
+
+    maxEventBatchSize = configuration.eventBatchSize();
+
+    eventTtlsByName = configuration.eventTtlsByName();
+    eventTtlsByChannel = configuration.eventTtlsByChannel();
+
+    eventQueue = new EventQueue(
+        configuration.eventQueueCapacity(),
+        configuration.eventQueueOverflowPolicy(),
+        droppedEvent -> counters.getCounter(COUNTER_EVENTS_DROPPED).add(1,
+            counters.attributesForEvent(
+                droppedEvent.getChannel().toString()))
+    );
+
+    // Create the command factories, none of the scopes change for the lifetime of this instance
+    stateMachineCommandFactory = newCommandFactory(this);
+
+    stateCommandFactories = stateInstances.values().stream()
+        .collect(Collectors.toMap(state -> state, this::newCommandFactory));
+
+    eventDataExtent = getExtent().extend(eventDataContext);
   }
 
   /**
    * Handles a received event.
+   * <p>
+   * The event is added to the event queue, in case the event queue is full the configured overflow policy applies. Internal events raised
+   * by the thread executing this instance are instead added to the internal events, without any synchronization.
    *
    * @param event Received event.
+   * @throws IllegalStateException If the event queue is full and the overflow policy is to reject events.
    * @thread Events.
    */
   @Override
@@ -202,20 +341,29 @@ public final class StateMachine implements Runnable, EventListener, Scope {
         counters.attributesForEvent(
             event.getChannel().toString()));
 
-    // Add to the internal event queue
-    eventQueue.add(event);
+    // Add to the internal events if raised while executing this instance, these never wait behind queued events
+    if (event.getChannel() == EventChannel.INTERNAL && Thread.currentThread() == executingThread) {
+      internalEvents.add(event);
+    } else if (eventQueue.offer(event)) {
+      // Added to the event queue, only if the event queue was empty wake up this state machine instance, either by scheduling a step or by
+      // signalling the thread executing this instance
+      if (parentRuntime.getConfiguration().isStepping()) {
+        schedule();
+      } else {
+        try {
+          eventQueueLock.lock();
 
-    synchronized (this) {
-      notify();
+          eventQueueNotEmpty.signal();
+        } finally {
+          eventQueueLock.unlock();
+        }
+      }
     }
 
     // Propagate internal events to nested state machines
     if (event.getChannel() == EventChannel.INTERNAL) {
-      for (final var nestedStateMachineId : nestedStateMachineIds) {
-        final var nestedStateMachineInstance = parentRuntime.findInstance(nestedStateMachineId)
-            .orElseThrow(() -> new IllegalStateException("Nested state machine could not be found, could not propagate event"));
-
-        nestedStateMachineInstance.onReceiveEvent(event);
+      for (final var nestedStateMachine : nestedStateMachines) {
+        nestedStateMachine.onReceiveEvent(event);
       }
     }
 
@@ -249,16 +397,14 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   }
 
   /**
-   * Creates a state machine instance-scoped command factory.
+   * Creates a command factory for a scope of this state machine instance.
    *
-   * @param stateMachine StateClass machine instance (scope).
-   * @param raisingEvent The raising event.
+   * @param scope Scope, this state machine instance or one of its state instances.
    * @return Command factory.
    */
-  private CommandFactory stateMachineScopedCommandFactory(StateMachine stateMachine, @Nullable Event raisingEvent) {
+  private CommandFactory newCommandFactory(Scope scope) {
     return new CommandFactory(new ExecutionContext(
-        stateMachine,                  // Scope
-        raisingEvent,                  // Raising event
+        scope,                         // Scope
         serviceImplementationSelector, // Service implementation selector
         stateMachineEventHandler,      // Event handler
         this,                          // Event listener
@@ -269,24 +415,13 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   }
 
   /**
-   * Creates a state instance-scoped command factory.
+   * Returns the state instance-scoped command factory.
    *
-   * @param state        StateClass instance (scope).
-   * @param raisingEvent The raising event.
-   * @param isWhile      Whether the command factory build while actions.
+   * @param state State instance (scope).
    * @return Command factory.
    */
-  private CommandFactory stateScopedCommandFactory(State state, @Nullable Event raisingEvent, boolean isWhile) {
-    return new CommandFactory(new ExecutionContext(
-        state,                         // Scope
-        raisingEvent,                  // Raising event
-        serviceImplementationSelector, // Service implementation selector
-        stateMachineEventHandler,      // Event handler
-        this,                          // Event listener
-        gauges,                        // Gauges
-        counters,                      // Counters
-        false                          // Is while?
-    ));
+  private CommandFactory stateScopedCommandFactory(State state) {
+    return stateCommandFactories.get(state);
   }
 
   /**
@@ -300,19 +435,19 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   }
 
   /**
-   * Attempts to select an on transition based on an event.
+   * Returns a flag that indicates whether any of the provided transitions has guards.
    *
-   * @param event  Event to find an on transition for.
-   * @param extent Extent.
-   * @return On transition or empty in case no matching on transition can be selected.
-   * @throws IllegalStateException If non-determinism is detected.
+   * @param transitionObjects Transitions.
+   * @return True if any transition has guards, otherwise false.
    */
-  private Optional<Transition> trySelectOnTransition(Event event, Extent extent) throws IllegalStateException {
-    // Find the transitions from the active state for the given event
-    final var transitionObjects = stateMachineClass
-        .findOnTransitionsFromStateByEventName(activeState.getStateObject(), event.getName());
+  private static boolean isAnyGuarded(List<? extends TransitionClass> transitionObjects) {
+    for (int i = 0; i < transitionObjects.size(); ++i) {
+      if (!transitionObjects.get(i).getGuards().isEmpty()) {
+        return true;
+      }
+    }
 
-    return trySelectTransition(transitionObjects, extent);
+    return false;
   }
 
   /**
@@ -347,22 +482,28 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   ) throws IllegalStateException {
     try {
       // A transition is taken when its guard conditions evaluate to true, or they do not evaluate to true, but an else target state is provided
-      final var selectedTransitions = new ArrayList<Transition>();
+      TransitionClass selectedTransitionObject = null;
+      var selectedIsElse = false;
 
-      for (final var transitionObject : transitionObjects) {
+      for (int i = 0; i < transitionObjects.size(); ++i) {
+        final var transitionObject = transitionObjects.get(i);
         final var isElse = transitionObject.getElse().isPresent();
         final var result = transitionObject.evaluate(extent);
 
         if (isElse || result) {
-          selectedTransitions.add(new Transition(transitionObject, isElse && !result));
+          if (selectedTransitionObject != null) {
+            throw new IllegalStateException("Non-determinism detected");
+          }
+
+          selectedTransitionObject = transitionObject;
+          selectedIsElse = isElse && !result;
         }
       }
 
-      return switch (selectedTransitions.size()) {
-        case 0 -> Optional.empty();
-        case 1 -> Optional.of(selectedTransitions.getFirst());
-        default -> throw new IllegalStateException("Non-determinism detected");
-      };
+      // Only the selected transition is instantiated
+      return selectedTransitionObject == null ?
+          Optional.empty() :
+          Optional.of(new Transition(selectedTransitionObject, selectedIsElse));
     } catch (UnsupportedOperationException e) {
       throw new IllegalStateException("No transition could be selected", e);
     }
@@ -371,26 +512,65 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   /**
    * Executes this collection of commands provided.
    * <p>
-   * Commands are executed recursively. Any command that is the result of a command execution is executed immediately following the command
-   * that created it.
+   * Any command that is the result of a command execution is executed immediately following the command that created it, and before the
+   * next command in the provided collection.
    *
    * @param actionCommands Commands to execute.
    * @throws UnsupportedOperationException If the action commands cannot be executed.
    */
   private void execute(List<ActionCommand> actionCommands) throws UnsupportedOperationException {
+    execute(actionCommands, pendingActionCommands);
+  }
+
+  /**
+   * Executes this collection of commands provided, using the provided work deque.
+   * <p>
+   * Commands are executed iteratively in depth-first order, equivalent to executing subsequent commands recursively. Commands are pushed
+   * onto the work deque in reverse order, such that the first command is executed first. Only the commands pushed by this call are
+   * executed, commands already present in the work deque are left untouched.
+   *
+   * @param actionCommands        Commands to execute.
+   * @param pendingActionCommands Work deque of pending commands.
+   * @throws UnsupportedOperationException If the action commands cannot be executed.
+   */
+  private static void execute(
+      List<ActionCommand> actionCommands,
+      Deque<ActionCommand> pendingActionCommands
+  ) throws UnsupportedOperationException {
+    final var base = pendingActionCommands.size();
+
     try {
-      for (final var actionCommand : actionCommands) {
+      pushAll(actionCommands, pendingActionCommands);
+
+      while (pendingActionCommands.size() > base) {
         // Execute and acquire new commands
-        final var newCommands = actionCommand.execute();
+        final var newCommands = pendingActionCommands.pop().execute();
 
-        // Execute any subsequent command
-        execute(newCommands);
+        // Execute any subsequent command next
+        pushAll(newCommands, pendingActionCommands);
       }
     } catch (UnsupportedOperationException e) {
+      // Discard the remaining commands of this execution
+      while (pendingActionCommands.size() > base) {
+        pendingActionCommands.pop();
+      }
+
       throw new UnsupportedOperationException("Could not execute action commands", e);
     }
   }
 
+  /**
+   * Pushes commands onto a work deque in reverse order.
+   *
+   * @param actionCommands        Commands to push.
+   * @param pendingActionCommands Work deque of pending commands.
+   */
+  private static void pushAll(List<ActionCommand> actionCommands, Deque<ActionCommand> pendingActionCommands) {
+    for (int i = actionCommands.size() - 1; i >= 0; --i) {
+      pendingActionCommands.push(actionCommands.get(i));
+    }
+  }
+
   /**
    * Starts all timeout actions as provided.
    * <p>
@@ -414,7 +594,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       }
 
       // Create action command
-      final var actionTimeoutCommand = stateMachineScopedCommandFactory(this, null)
+      final var actionTimeoutCommand = stateMachineCommandFactory
           .createActionCommand(timeoutActionObject.getAction());
 
       if (!(actionTimeoutCommand instanceof ActionRaiseCommand)) {
@@ -427,7 +607,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
       // Start the timeout task
       timeoutActionManager.start(actionName, (Number) delay, () -> {
-        execute(List.of(actionTimeoutCommand));
+        execute(List.of(actionTimeoutCommand), new ArrayDeque<>());
       });
     }
   }
@@ -479,7 +659,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   private void doExit(State exitingState, @Nullable Event raisingEvent) throws UnsupportedOperationException {
     // Gather action commands
     final var exitActionCommands = exitingState.getExitActionCommands(
-        stateScopedCommandFactory(exitingState, raisingEvent, false));
+        stateScopedCommandFactory(exitingState), raisingEvent);
 
     // Stop timeout actions
     stopAllTimeoutActions();
@@ -511,7 +691,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
 
     // Gather action commands
     final var transitionActionCommands = transition.getActionCommands(
-        stateMachineScopedCommandFactory(this, raisingEvent));
+        stateMachineCommandFactory, raisingEvent);
 
     // Execute in order
     try {
@@ -540,11 +720,11 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       @Nullable Event raisingEvent
   ) throws UnsupportedOperationException, IllegalArgumentException {
     // Gather action commands
-    final var entryActionCommands = enteringState.getEntryActionCommands(
-        stateScopedCommandFactory(enteringState, raisingEvent, false));
+    final var commandFactory = stateScopedCommandFactory(enteringState);
+
+    final var entryActionCommands = enteringState.getEntryActionCommands(commandFactory, raisingEvent);
 
-    final var whileActionCommands = enteringState.getWhileActionCommands(
-        stateScopedCommandFactory(enteringState, raisingEvent, true));
+    final var whileActionCommands = enteringState.getWhileActionCommands(commandFactory, raisingEvent);
 
     final var timeoutActionObjects = enteringState.getTimeoutActionObjects();
 
@@ -634,7 +814,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   /**
    * Handles an event.
    * <p>
-   * This function blocks until a new event is received.
+   * This function blocks until a new event is received. An event with event data that could not be decoded is discarded.
    *
    * @throws InterruptedException          If interrupted while waiting for an event.
    * @throws UnsupportedOperationException If an on transition could not be selected.
@@ -645,35 +825,63 @@ public final class StateMachine implements Runnable, EventListener, Scope {
         counters.attributesForEvent(
             event.getChannel().toString()));
 
-    // Find a matching transition
-    try {
-      // Create a temporary in-memory context containing the event data
-      final var eventDataContext = new InMemoryContext(true);
+    // Find the transitions from the active state for the event, the event data is not needed if no transition is triggered by the event
+    final var transitionObjects = stateMachineClass
+        .findOnTransitionsFromStateByEventName(activeState.getStateObject(), event.getName());
 
-      for (var contextVariable : event.getData()) {
-        eventDataContext.create(EVENT_DATA_VARIABLE_PREFIX + contextVariable.name(), contextVariable.value());
-      }
+    if (transitionObjects.isEmpty()) {
+      return Optional.empty();
+    }
 
-      // Create a temporary extent that contains the event data
-      final var extent = getExtent().extend(eventDataContext);
+    // Decode the event data, an event with data that could not be decoded is discarded and this state machine instance keeps running
+    final List<ContextVariable> data;
 
-      final var onTransition = trySelectOnTransition(event, extent);
+    try {
+      data = event.getData();
+    } catch (UnsupportedOperationException e) {
+      logger.warn("{} discarded event '{}' with data that could not be decoded: {}", stateMachineId.toString(), event.getName(),
+          e.getMessage());
 
-      // Set the event data in the actual extent
-      onTransition.ifPresent(transition -> {
-        try {
-          for (var contextVariable : event.getData()) {
-            getExtent().setOrCreate(EVENT_DATA_VARIABLE_PREFIX + contextVariable.name(), contextVariable.value());
-          }
-        } catch (IOException e) {
-          logger.error("Failed to set event data", e);
-        }
-      });
+      return Optional.empty();
+    }
+
+    // Find a matching transition, the event data is only exposed to the guards through the event data context if any transition is guarded
+    final Optional<Transition> onTransition;
+
+    try {
+      if (isAnyGuarded(transitionObjects)) {
+        eventDataContext.bind(data);
+      }
 
-      return onTransition;
-    } catch (IOException | IllegalStateException e) {
+      onTransition = trySelectTransition(transitionObjects, eventDataExtent);
+    } catch (IllegalStateException e) {
       throw new UnsupportedOperationException("Could not select on transition", e);
+    } finally {
+      eventDataContext.unbind();
     }
+
+    // Set the event data in the actual extent
+    if (onTransition.isPresent()) {
+      try {
+        for (var contextVariable : data) {
+          extent.setOrCreate(eventDataVariableName(contextVariable.name()), contextVariable.value());
+        }
+      } catch (IOException e) {
+        logger.error("Failed to set event data", e);
+      }
+    }
+
+    return onTransition;
+  }
+
+  /**
+   * Returns the prefixed name of an event data variable, prefixed names are created once per distinct variable name.
+   *
+   * @param name Event data variable name.
+   * @return Prefixed event data variable name.
+   */
+  private String eventDataVariableName(String name) {
+    return eventDataVariableNames.computeIfAbsent(name, unprefixed -> EVENT_DATA_VARIABLE_PREFIX + unprefixed);
   }
 
   /**
@@ -683,51 +891,70 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   @Override
   public void run() {
-    // Increment state machine instances counter
-    counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(1,
-        counters.attributesForInstances());
+    executingThread = Thread.currentThread();
 
     try {
-      // Acquire the initial state instance
-      final var initialStateInstance = stateInstances.get(stateMachineClass.getInitialState().getName());
-
-      // TransitionClass into the initial state
-      var nextTransition = doEnter(initialStateInstance, null);
+      start();
 
       while (!isTerminated()) {
-        Event event = null;
+        // Wait for a next event, the lock is only taken if the event queue is empty
+        if (eventQueue.isEmpty()) {
+          try {
+            eventQueueLock.lock();
 
-        // Wait for a next event, if no transition is selected. No transition is selected initially if the initial state has no selectable
-        // always transition or thereafter if we've handled the selected transition
-        if (nextTransition.isEmpty()) {
-          synchronized (this) {
             while (eventQueue.isEmpty()) {
-              wait();
+              eventQueueNotEmpty.await();
             }
-            event = eventQueue.poll();
+          } finally {
+            eventQueueLock.unlock();
           }
-
-          nextTransition = handleEvent(event);
         }
 
-        // If a transition is selected, handle it. The transition will be handled recursively; any transition selected due to entering a
-        // next state is handled recursively. Therefore, if we're done handling this transition, we indicate that we need to wait for a new
-        // event again
-        if (nextTransition.isPresent()) {
-          handleTransition(nextTransition.get(), event);
+        processEventBatch();
+      }
+    } catch (InterruptedException e) {
+      logger.info("{} is interrupted", stateMachineId.toString());
 
-          nextTransition = Optional.empty();
-        }
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.error("%s received a fatal error".formatted(stateMachineId.toString()), e);
+    }
+
+    stop();
+  }
 
-        // Record event handling time
-        if (event != null) {
-          final var delta = Time.timeInMillisecondsSinceEpoch() - event.getCreatedTime();
+  /**
+   * Executes a single step of this state machine instance, never blocks.
+   * <p>
+   * The first step enters the initial state, every following step takes at most a batch of events from the event queue and runs these to
+   * completion. If more events are queued after the step, a next step is scheduled.
+   * <p>
+   * Steps are executed by the runtime scheduler workers, at most one step of an instance is executed at any time.
+   *
+   * @return True if this state machine instance has stopped, otherwise false.
+   */
+  public boolean step() {
+    executingThread = Thread.currentThread();
 
-          gauges.getGauge(GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE).set(delta,
-              gauges.attributesForEvent(
-                  event.getChannel().toString()
-              ));
+    try {
+      if (!started) {
+        start();
+      } else {
+        processEventBatch();
+      }
+
+      if (!isTerminated()) {
+        // No longer executing, must happen before a next step can be scheduled
+        executingThread = null;
+
+        scheduled.set(false);
+
+        // Events may have been received during this step, in which case scheduling has been suppressed
+        if (!eventQueue.isEmpty()) {
+          schedule();
         }
+
+        return false;
       }
     } catch (InterruptedException e) {
       logger.info("{} is interrupted", stateMachineId.toString());
@@ -737,16 +964,156 @@ public final class StateMachine implements Runnable, EventListener, Scope {
       logger.error("%s received a fatal error".formatted(stateMachineId.toString()), e);
     }
 
+    stop();
+
+    return true;
+  }
+
+  /**
+   * Schedules a step of this state machine instance with the parent runtime, unless a step is already pending.
+   */
+  public void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      parentRuntime.schedule(this);
+    }
+  }
+
+  /**
+   * Starts this state machine instance by entering the initial state.
+   *
+   * @throws InterruptedException If interrupted.
+   */
+  private void start() throws InterruptedException {
+    started = true;
+
+    // Increment state machine instances counter
+    counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(1,
+        counters.attributesForInstances());
+
+    // Acquire the initial state instance
+    final var initialStateInstance = stateInstances.get(stateMachineClass.getInitialState().getName());
+
+    // Transition into the initial state, a transition is selected if the initial state has a selectable always transition
+    final var nextTransition = doEnter(initialStateInstance, null);
+
+    if (nextTransition.isPresent()) {
+      handleTransition(nextTransition.get(), null);
+    }
+
+    // Process the internal events raised while entering the initial state
+    processInternalEvents();
+  }
+
+  /**
+   * Stops this state machine instance, removing it from the runtime.
+   */
+  private void stop() {
     logger.info("{} has stopped", stateMachineId.toString());
 
     // Decrement state machine instances counter
     counters.getCounter(COUNTER_STATE_MACHINE_INSTANCES).add(-1,
         counters.attributesForInstances());
 
+    // Release any producers blocked on the event queue
+    eventQueue.close();
+
     // Remove the state machine instance from the runtime
     parentRuntime.remove(this);
   }
 
+  /**
+   * Processes a batch of queued events, each event is run to completion before the next event is processed.
+   * <p>
+   * At most the configured maximum batch size of events is taken from the event queue, events remaining in the batch once this state
+   * machine instance terminates are discarded. The internal events raised while processing an event are processed before the next event.
+   *
+   * @throws InterruptedException If interrupted.
+   */
+  private void processEventBatch() throws InterruptedException {
+    eventQueue.drainTo(eventBatch, maxEventBatchSize);
+
+    try {
+      for (int i = 0; i < eventBatch.size() && !isTerminated(); ++i) {
+        processEvent(eventBatch.get(i));
+        processInternalEvents();
+      }
+    } finally {
+      eventBatch.clear();
+    }
+  }
+
+  /**
+   * Returns a flag that indicates whether an event has outlived its time to live.
+   * <p>
+   * The time to live of the event itself takes precedence over the time to live by event name, which takes precedence over the time to
+   * live by event channel. The created time of an event received from another host is subject to clock skew between hosts.
+   *
+   * @param event Event.
+   * @return True if the event has expired, otherwise false.
+   */
+  private boolean isExpired(Event event) {
+    long ttlInMs = event.getTtlInMs();
+
+    if (ttlInMs <= 0) {
+      ttlInMs = eventTtlsByName.getOrDefault(event.getName(), eventTtlsByChannel.getOrDefault(event.getChannel(), 0L));
+    }
+
+    return ttlInMs > 0 && Time.timeInMillisecondsSinceEpoch() - event.getCreatedTime() > ttlInMs;
+  }
+
+  /**
+   * Processes the internal events raised by the thread executing this instance, including the internal events raised while doing so.
+   * <p>
+   * Internal events remaining once this state machine instance terminates are discarded.
+   *
+   * @throws InterruptedException If interrupted.
+   */
+  private void processInternalEvents() throws InterruptedException {
+    while (!isTerminated()) {
+      final var internalEvent = internalEvents.poll();
+
+      if (internalEvent == null) {
+        break;
+      }
+
+      processEvent(internalEvent);
+    }
+  }
+
+  /**
+   * Processes an event, handling the selected transition if any.
+   * <p>
+   * The transition is handled recursively; any transition selected due to entering a next state is handled recursively. An event that has
+   * expired is dropped before any guard is evaluated.
+   *
+   * @param event Event to process.
+   * @throws InterruptedException If interrupted.
+   */
+  private void processEvent(Event event) throws InterruptedException {
+    if (isExpired(event)) {
+      counters.getCounter(COUNTER_EVENTS_EXPIRED).add(1,
+          counters.attributesForEvent(
+              event.getChannel().toString()));
+      return;
+    }
+
+    final var nextTransition = handleEvent(event);
+
+    if (nextTransition.isPresent()) {
+      handleTransition(nextTransition.get(), event);
+    }
+
+    // Record event handling time
+    final var delta = Time.timeInMillisecondsSinceEpoch() - event.getCreatedTime();
+
+    final var attributes = gauges.attributesForEvent(event.getChannel().toString());
+
+    gauges.getGauge(GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE).set(delta, attributes);
+
+    // Record the number of events still queued
+    gauges.getGauge(GAUGE_EVENT_QUEUE_DEPTH).set(eventQueue.size(), attributes);
+  }
+
   /**
    * Returns this scope's extent.
    *
@@ -754,9 +1121,7 @@ public final class StateMachine implements Runnable, EventListener, Scope {
    */
   @Override
   public Extent getExtent() {
-    return Optional.ofNullable(parentStateMachine)
-        .map(parent -> parent.getExtent().extend(localContext))
-        .orElseGet(() -> parentRuntime.getExtent().extend(localContext));
+    return extent;
   }
 
   @Override
@@ -783,11 +1148,11 @@ public final class StateMachine implements Runnable, EventListener, Scope {
   }
 
   /**
-   * Sets the collection of nested state machine instance IDs.
+   * Sets the collection of nested state machine instances.
    *
-   * @param nestedStateMachineIds Nested state machine instance IDs.
+   * @param nestedStateMachines Nested state machine instances.
    */
-  public void setNestedStateMachineIds(List<Id> nestedStateMachineIds) {
-    this.nestedStateMachineIds = nestedStateMachineIds;
+  public void setNestedStateMachines(List<StateMachine> nestedStateMachines) {
+    this.nestedStateMachines = List.copyOf(nestedStateMachines);
   }
 }
@@ -1,28 +1,28 @@
 package at.ac.uibk.dps.cirrina.execution.scheduler;
 
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
-import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Round-robin scheduler, schedules state machine executions in a round-robin pattern, finding the next state machine instance that can
- * execute a actionCommand.
+ * Round-robin scheduler, schedules state machine executions in a round-robin pattern. Ready state machine instances are selected in the
+ * order in which they became ready, an instance that is ready again after a step is queued behind all other ready instances.
  */
 public final class RoundRobinRuntimeScheduler implements RuntimeScheduler {
 
-  private int index = 0;
+  /**
+   * Ready queue, contains the state machine instances that are ready to execute a step.
+   */
+  private final Queue<StateMachine> readyQueue = new ConcurrentLinkedQueue<>();
 
   @Override
-  public Optional<StateMachine> select(List<StateMachine> instances) {
-    /*// Select the first instance with a actionCommand in its queue
-    for (var stateMachine : Iterables.limit(Iterables.skip(Iterables.cycle(instances), index), instances.size())) {
-      ++index;
-
-      if (stateMachine.canExecute()) {
-        return Optional.of(stateMachine);
-      }
-    }*/
+  public void schedule(StateMachine stateMachine) {
+    readyQueue.add(stateMachine);
+  }
 
-    return Optional.empty();
+  @Override
+  public Optional<StateMachine> select() {
+    return Optional.ofNullable(readyQueue.poll());
   }
 }
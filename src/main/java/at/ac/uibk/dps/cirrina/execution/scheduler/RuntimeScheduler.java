@@ -2,12 +2,29 @@ package at.ac.uibk.dps.cirrina.execution.scheduler;
 
 import at.ac.uibk.dps.cirrina.execution.command.ActionCommand;
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
-import java.util.List;
 import java.util.Optional;
 
+/**
+ * Runtime scheduler, decides the order in which state machine instances that are ready to execute a step are stepped by the runtime's
+ * scheduler worker threads.
+ * <p>
+ * Implementations must be thread-safe, instances are scheduled from any thread and selected concurrently by all worker threads.
+ */
 public interface RuntimeScheduler {
 
-  Optional<StateMachine> select(List<StateMachine> instances);
+  /**
+   * Marks a state machine instance as ready to execute a step.
+   *
+   * @param stateMachine State machine instance.
+   */
+  void schedule(StateMachine stateMachine);
+
+  /**
+   * Selects the next state machine instance to step, never blocks.
+   *
+   * @return The selected state machine instance or an empty optional if no instance is ready.
+   */
+  Optional<StateMachine> select();
 
   record StateMachineInstanceCommand(StateMachine stateMachine, ActionCommand actionCommand) {
 
@@ -1,12 +1,19 @@
 package at.ac.uibk.dps.cirrina.main;
 
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.NatsContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventDeduplicator;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventQueue.OverflowPolicy;
 import at.ac.uibk.dps.cirrina.execution.object.event.NatsEventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.event.PeripheralEventReceiver;
+import at.ac.uibk.dps.cirrina.execution.object.event.RingBufferEventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.event.RingBufferEventHandler.WaitStrategy;
 import at.ac.uibk.dps.cirrina.execution.scheduler.RoundRobinRuntimeScheduler;
 import at.ac.uibk.dps.cirrina.execution.scheduler.RuntimeScheduler;
 import at.ac.uibk.dps.cirrina.runtime.OnlineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeConfiguration;
 import at.ac.uibk.dps.cirrina.utils.Id;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
@@ -14,7 +21,13 @@ import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.ParametersDelegate;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import jakarta.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
@@ -87,17 +100,48 @@ public class Main {
     loggerContext.updateLoggers();
   }
 
+  /**
+   * Parses event times to live, provided as key=milliseconds pairs.
+   *
+   * @param eventTtls Event times to live.
+   * @param keyParser Parses a key.
+   * @param <K>       Key type.
+   * @return Time to live in milliseconds by key.
+   * @throws IllegalArgumentException If an event time to live could not be parsed.
+   */
+  private static <K> Map<K, Long> parseEventTtls(List<String> eventTtls, Function<String, K> keyParser) throws IllegalArgumentException {
+    final var ttlsInMs = new HashMap<K, Long>();
+
+    for (final var eventTtl : eventTtls) {
+      final var separator = eventTtl.lastIndexOf('=');
+
+      if (separator <= 0) {
+        throw new IllegalArgumentException("Invalid event time to live '%s', expected key=milliseconds".formatted(eventTtl));
+      }
+
+      ttlsInMs.put(keyParser.apply(eventTtl.substring(0, separator)), Long.parseLong(eventTtl.substring(separator + 1)));
+    }
+
+    return ttlsInMs;
+  }
+
   /**
    * Run the runtime.
    */
   public void run() {
     // Connect to event system
     try (final var eventHandler = newEventHandler()) {
-      eventHandler.subscribe(NatsEventHandler.GLOBAL_SOURCE, "*");
-      eventHandler.subscribe(NatsEventHandler.PERIPHERAL_SOURCE, "*");
+      // Deduplicate received events, if enabled
+      if (args.eventDeduplicationWindowInMs > 0) {
+        eventHandler.setDeduplicator(new EventDeduplicator(
+            args.eventDeduplicationWindowInMs,
+            args.eventDeduplicationExpectedEvents,
+            args.eventDeduplicationFalsePositiveProbability));
+      }
 
-      // Connect to persistent context system
-      try (final var persistentContext = newPersistentContext()) {
+      // Connect to persistent context system, and receive peripheral events locally if enabled
+      try (final var persistentContext = newPersistentContext();
+          final var peripheralEventReceiver = newPeripheralEventReceiver(eventHandler)) {
         // Connect to coordination system
         try (final var curatorFramework = newCuratorFramework()) {
           curatorFramework.start();
@@ -105,6 +149,11 @@ public class Main {
           // Acquire OpenTelemetry instance
           final var openTelemetry = getOpenTelemetry();
 
+          // Observe the peripheral event receiver, if receiving peripheral events locally
+          if (peripheralEventReceiver != null) {
+            peripheralEventReceiver.observe(openTelemetry.getMeter("peripheral-event-receiver"));
+          }
+
           // Create the shared runtime
           final var runtime = new OnlineRuntime(
               args.name,
@@ -112,7 +161,8 @@ public class Main {
               persistentContext,
               openTelemetry,
               curatorFramework,
-              args.deleteJob);
+              args.deleteJob,
+              newRuntimeConfiguration());
 
           runtime.run();
 
@@ -128,6 +178,21 @@ public class Main {
     }
   }
 
+  /**
+   * Constructs a new runtime configuration according to the provided arguments.
+   *
+   * @return Runtime configuration.
+   */
+  protected RuntimeConfiguration newRuntimeConfiguration() {
+    return RuntimeConfiguration.defaults()
+        .withVirtualThreads(args.virtualThreads)
+        .withScheduler(newRuntimeScheduler(), args.schedulerThreads)
+        .withEventQueue(args.eventQueueCapacity, args.eventQueueOverflowPolicy)
+        .withEventBatchSize(args.eventBatchSize)
+        .withEventTtls(parseEventTtls(args.eventTtlsByName, Function.identity()),
+            parseEventTtls(args.eventTtlsByChannel, EventChannel::valueOf));
+  }
+
   /**
    * Constructs a new runtime scheduler according to the provided arguments.
    *
@@ -156,6 +221,9 @@ public class Main {
       case Nats -> {
         return newNatsEventHandler();
       }
+      case RingBuffer -> {
+        return newRingBufferEventHandler();
+      }
     }
 
     throw new IllegalArgumentException("Unknown event handler '%s'".formatted(args.eventHandler));
@@ -168,7 +236,45 @@ public class Main {
    * @throws IOException If the event handler could not be constructed.
    */
   private NatsEventHandler newNatsEventHandler() throws IOException {
-    return new NatsEventHandler(args.natsEventHandlerArgs.natsUrl);
+    return new NatsEventHandler(args.natsEventHandlerArgs.natsUrl, new NatsEventHandler.Parameters(
+        args.natsEventHandlerArgs.dispatchers,
+        args.eventDeliveryThreads,
+        args.natsEventHandlerArgs.publishBatchSize,
+        args.natsEventHandlerArgs.publishFlushIntervalInMs
+    ));
+  }
+
+  /**
+   * Constructs a new ring buffer event handler according to the provided arguments.
+   *
+   * @return Event handler.
+   * @throws IllegalArgumentException If the ring buffer capacity is not a positive power of two.
+   */
+  private RingBufferEventHandler newRingBufferEventHandler() throws IllegalArgumentException {
+    return new RingBufferEventHandler(new RingBufferEventHandler.Parameters(
+        args.ringBufferEventHandlerArgs.capacity,
+        args.ringBufferEventHandlerArgs.waitStrategy,
+        args.eventDeliveryThreads
+    ));
+  }
+
+  /**
+   * Constructs a new peripheral event receiver according to the provided arguments.
+   *
+   * @param eventHandler Event handler to inject received peripheral events into.
+   * @return Peripheral event receiver, or null if receiving peripheral events locally is disabled.
+   * @throws IOException If the peripheral event receiver could not be constructed.
+   */
+  private @Nullable PeripheralEventReceiver newPeripheralEventReceiver(EventHandler eventHandler) throws IOException {
+    if (args.peripheralEventReceiverArgs.port <= 0) {
+      return null;
+    }
+
+    return new PeripheralEventReceiver(eventHandler, new PeripheralEventReceiver.Parameters(
+        args.peripheralEventReceiverArgs.host,
+        args.peripheralEventReceiverArgs.port,
+        args.peripheralEventReceiverArgs.receiveBufferSize
+    ));
   }
 
   /**
@@ -229,6 +335,42 @@ public class Main {
 
     @Parameter(names = {"--nats-event-handler-url"})
     private String natsUrl = "nats://localhost:4222/";
+
+    @Parameter(names = {"--nats-event-handler-dispatchers"})
+    private int dispatchers = 1;
+
+    @Parameter(names = {"--nats-event-handler-publish-batch-size"})
+    private int publishBatchSize = 1;
+
+    @Parameter(names = {"--nats-event-handler-publish-flush-interval-ms"})
+    private long publishFlushIntervalInMs = 5;
+  }
+
+  /**
+   * Ring buffer event handler-specific arguments.
+   */
+  public final static class RingBufferEventHandlerArgs {
+
+    @Parameter(names = {"--ring-buffer-event-handler-capacity"})
+    private int capacity = 65536;
+
+    @Parameter(names = {"--ring-buffer-event-handler-wait-strategy"})
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+  }
+
+  /**
+   * Peripheral event receiver-specific arguments.
+   */
+  public final static class PeripheralEventReceiverArgs {
+
+    @Parameter(names = {"--peripheral-event-receiver-host"})
+    private String host = "127.0.0.1";
+
+    @Parameter(names = {"--peripheral-event-receiver-port"})
+    private int port = 0;
+
+    @Parameter(names = {"--peripheral-event-receiver-receive-buffer-size"})
+    private int receiveBufferSize = 4 * 1024 * 1024;
   }
 
   /**
@@ -266,6 +408,12 @@ public class Main {
     @ParametersDelegate
     private final NatsEventHandlerArgs natsEventHandlerArgs = new NatsEventHandlerArgs();
 
+    @ParametersDelegate
+    private final RingBufferEventHandlerArgs ringBufferEventHandlerArgs = new RingBufferEventHandlerArgs();
+
+    @ParametersDelegate
+    private final PeripheralEventReceiverArgs peripheralEventReceiverArgs = new PeripheralEventReceiverArgs();
+
     @ParametersDelegate
     private final NatsPersistentContextArgs natsPersistentContextArgs = new NatsPersistentContextArgs();
 
@@ -287,12 +435,46 @@ public class Main {
     @Parameter(names = {"--delete-job", "-d"}, arity = 1)
     private boolean deleteJob = true;
 
+    @Parameter(names = {"--virtual-threads"}, arity = 1)
+    private boolean virtualThreads = false;
+
+    @Parameter(names = {"--scheduler-threads"})
+    private int schedulerThreads = 0;
+
+    @Parameter(names = {"--event-delivery-threads"})
+    private int eventDeliveryThreads = 0;
+
+    @Parameter(names = {"--event-queue-capacity"})
+    private int eventQueueCapacity = Integer.MAX_VALUE;
+
+    @Parameter(names = {"--event-queue-overflow-policy"})
+    private OverflowPolicy eventQueueOverflowPolicy = OverflowPolicy.BLOCK;
+
+    @Parameter(names = {"--event-batch-size"})
+    private int eventBatchSize = 64;
+
+    @Parameter(names = {"--event-deduplication-window-ms"})
+    private long eventDeduplicationWindowInMs = 0;
+
+    @Parameter(names = {"--event-deduplication-expected-events"})
+    private long eventDeduplicationExpectedEvents = 1_000_000;
+
+    @Parameter(names = {"--event-deduplication-false-positive-probability"})
+    private double eventDeduplicationFalsePositiveProbability = 1e-6;
+
+    @Parameter(names = {"--event-name-ttl-ms"})
+    private List<String> eventTtlsByName = new ArrayList<>();
+
+    @Parameter(names = {"--event-channel-ttl-ms"})
+    private List<String> eventTtlsByChannel = new ArrayList<>();
+
     enum Scheduler {
       RoundRobin
     }
 
     enum EventHandler {
-      Nats
+      Nats,
+      RingBuffer
     }
 
     enum PersistentContext {
@@ -47,7 +47,38 @@ public class OfflineRuntime extends Runtime {
    * @param persistentContext Persistent context.
    */
   public OfflineRuntime(String name, EventHandler eventHandler, Context persistentContext) {
-    super(name, eventHandler, persistentContext, getOpenTelemetry());
+    this(name, eventHandler, persistentContext, RuntimeConfiguration.defaults());
+  }
+
+  /**
+   * Initializes this offline runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param configuration     Runtime configuration.
+   */
+  public OfflineRuntime(String name, EventHandler eventHandler, Context persistentContext, RuntimeConfiguration configuration) {
+    super(name, eventHandler, persistentContext, getOpenTelemetry(), configuration);
+  }
+
+  /**
+   * Initializes this offline runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param openTelemetry     OpenTelemetry.
+   * @param configuration     Runtime configuration.
+   */
+  public OfflineRuntime(
+      String name,
+      EventHandler eventHandler,
+      Context persistentContext,
+      OpenTelemetry openTelemetry,
+      RuntimeConfiguration configuration
+  ) {
+    super(name, eventHandler, persistentContext, openTelemetry, configuration);
   }
 
   /**
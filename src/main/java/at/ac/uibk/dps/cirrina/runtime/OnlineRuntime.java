@@ -4,6 +4,7 @@ import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeSta
 import at.ac.uibk.dps.cirrina.csml.description.ExpressionDescription;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.expression.Expression;
 import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionBuilder;
 import at.ac.uibk.dps.cirrina.execution.service.RandomServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationBuilder;
@@ -16,6 +17,7 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import io.opentelemetry.api.OpenTelemetry;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import org.apache.curator.framework.CuratorFramework;
 
@@ -65,7 +67,30 @@ public class OnlineRuntime extends Runtime implements JobListener {
       CuratorFramework curatorFramework,
       boolean deleteJob
   ) {
-    super(name, eventHandler, persistentContext, openTelemetry);
+    this(name, eventHandler, persistentContext, openTelemetry, curatorFramework, deleteJob, RuntimeConfiguration.defaults());
+  }
+
+  /**
+   * Initializes this online runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param openTelemetry     OpenTelemetry.
+   * @param curatorFramework  CuratorFramework.
+   * @param deleteJob         Delete job when consumed.
+   * @param configuration     Runtime configuration.
+   */
+  public OnlineRuntime(
+      String name,
+      EventHandler eventHandler,
+      Context persistentContext,
+      OpenTelemetry openTelemetry,
+      CuratorFramework curatorFramework,
+      boolean deleteJob,
+      RuntimeConfiguration configuration
+  ) {
+    super(name, eventHandler, persistentContext, openTelemetry, configuration);
 
     this.deleteJob = deleteJob;
 
@@ -160,20 +185,31 @@ public class OnlineRuntime extends Runtime implements JobListener {
 
     // Assign local data from the job description if the job description contains any local data. Assign to the parent and nested state machines
     if (!jobDescription.localData.isEmpty()) {
+      // Build the local data expressions once, they are evaluated for every instance
+      final var localDataExpressions = new LinkedHashMap<String, Expression>();
+
+      for (final var localData : jobDescription.localData.entrySet()) {
+        try {
+          localDataExpressions.put(localData.getKey(), ExpressionBuilder.from(new ExpressionDescription(localData.getValue())).build());
+        } catch (UnsupportedOperationException e) {
+          throw new UnsupportedOperationException(
+              "Could not assign value '%s' to local data variable '%s'".formatted(localData.getValue(), localData.getKey()), e);
+        }
+      }
+
       for (final var instanceId : instanceIds) {
         final var stateMachineInstance = findInstance(instanceId)
             .orElseThrow(() -> new UnsupportedOperationException(
                 "State machine '%s' with id '%s' was not instantiated.".formatted(stateMachine.getName(), instanceId)));
 
-        for (final var localData : jobDescription.localData.entrySet()) {
+        for (final var localData : localDataExpressions.entrySet()) {
           try {
             // Assign local data entry, evaluate the value as an expression
-            final var valueExpression = ExpressionBuilder.from(new ExpressionDescription(localData.getValue())).build();
-
-            stateMachineInstance.getExtent().setOrCreate(localData.getKey(), valueExpression.execute(stateMachineInstance.getExtent()));
+            stateMachineInstance.getExtent()
+                .setOrCreate(localData.getKey(), localData.getValue().execute(stateMachineInstance.getExtent()));
           } catch (IOException | IllegalArgumentException e) {
             throw new UnsupportedOperationException(
-                "Could not assign value '%s' to local data variable '%s'".formatted(localData.getKey(), localData.getValue()), e);
+                "Could not assign value '%s' to local data variable '%s'".formatted(localData.getValue(), localData.getKey()), e);
           }
         }
       }
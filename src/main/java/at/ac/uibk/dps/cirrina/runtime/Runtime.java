@@ -1,10 +1,19 @@
 package at.ac.uibk.dps.cirrina.runtime;
 
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_DEDUPLICATION_CHECKS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EVENT_DEDUPLICATION_HITS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EXPRESSION_CACHE_EVICTIONS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EXPRESSION_CACHE_HITS;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EXPRESSION_CACHE_MISSES;
+import static at.ac.uibk.dps.cirrina.tracing.SemanticConvention.GAUGE_EXPRESSION_CACHE_SIZE;
+
 import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
 import at.ac.uibk.dps.cirrina.classes.statemachine.StateMachineClass;
 import at.ac.uibk.dps.cirrina.execution.object.context.Context;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventDeduplicator;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.expression.ExpressionBuilder;
 import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
 import at.ac.uibk.dps.cirrina.execution.service.ServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.utils.Id;
@@ -13,14 +22,19 @@ import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.trace.Tracer;
 import jakarta.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EventListener;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -45,6 +59,11 @@ public abstract class Runtime implements EventListener {
    */
   protected static final Logger logger = LogManager.getLogger();
 
+  /**
+   * Interval in which idle scheduler worker threads check whether the runtime has completed.
+   */
+  private static final int SCHEDULER_POLL_INTERVAL_IN_MS = 100;
+
   /**
    * Runtime name.
    */
@@ -75,15 +94,40 @@ public abstract class Runtime implements EventListener {
    */
   protected final Meter meter;
 
+  /**
+   * Runtime configuration.
+   */
+  protected final RuntimeConfiguration configuration;
+
+  /**
+   * Runtime extent, contains the persistent context.
+   */
+  private final Extent extent;
+
   /**
    * StateClass machine instance executor service, manages running state machine instances.
    */
-  private final ExecutorService stateMachineInstanceExecutorService = Executors.newCachedThreadPool();
+  private final ExecutorService stateMachineInstanceExecutorService;
+
+  /**
+   * Instantiated state machines by state machine instance ID.
+   */
+  private final Map<Id, StateMachine> stateMachines = new ConcurrentHashMap<>();
+
+  /**
+   * Number of instantiated state machines consuming an event, by event name. Events are only subscribed to while consumed.
+   */
+  private final Map<String, Integer> subscriptionCounts = new HashMap<>();
 
   /**
-   * List of instantiated state machines.
+   * Lock guarding the subscription counts, subscribing and unsubscribing happens while holding this lock.
    */
-  private final Queue<StateMachine> stateMachines = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock subscriptionLock = new ReentrantLock();
+
+  /**
+   * Number of state machine instances that are ready to be stepped, scheduler worker threads wait on this semaphore.
+   */
+  private final Semaphore readyStateMachines = new Semaphore(0);
 
   /**
    * Initializes this runtime instance.
@@ -94,18 +138,76 @@ public abstract class Runtime implements EventListener {
    * @param openTelemetry     OpenTelemetry.
    */
   public Runtime(String name, EventHandler eventHandler, Context persistentContext, OpenTelemetry openTelemetry) {
+    this(name, eventHandler, persistentContext, openTelemetry, RuntimeConfiguration.defaults());
+  }
+
+  /**
+   * Initializes this runtime instance.
+   *
+   * @param name              Name.
+   * @param eventHandler      Event handler.
+   * @param persistentContext Persistent context.
+   * @param openTelemetry     OpenTelemetry.
+   * @param configuration     Runtime configuration.
+   */
+  public Runtime(
+      String name,
+      EventHandler eventHandler,
+      Context persistentContext,
+      OpenTelemetry openTelemetry,
+      RuntimeConfiguration configuration
+  ) {
     this.name = name;
 
     // Keep dependencies
     this.eventHandler = eventHandler;
     this.persistentContext = persistentContext;
     this.openTelemetry = openTelemetry;
+    this.configuration = configuration;
+
+    this.extent = new Extent(persistentContext);
+
+    if (configuration.isStepping()) {
+      // A fixed number of scheduler worker threads steps all state machine instances, decoupling the number of instances from the number
+      // of threads
+      this.stateMachineInstanceExecutorService = Executors.newFixedThreadPool(configuration.schedulerThreads());
+
+      for (int i = 0; i < configuration.schedulerThreads(); ++i) {
+        this.stateMachineInstanceExecutorService.submit(this::runSchedulerWorker);
+      }
+    } else {
+      // Each state machine instance occupies a thread for its whole lifetime, mostly parked while waiting for events. Virtual threads
+      // allow hosting a large number of such mostly-idle instances
+      this.stateMachineInstanceExecutorService = configuration.virtualThreads() ?
+          Executors.newVirtualThreadPerTaskExecutor() :
+          Executors.newCachedThreadPool();
+    }
 
     // Create an OpenTelemetry tracer
     this.tracer = this.openTelemetry.getTracer("runtime");
 
     // Create an OpenTelemetry meter
     meter = this.openTelemetry.getMeter("runtime");
+
+    // Observe the expression cache
+    meter.gaugeBuilder(GAUGE_EXPRESSION_CACHE_HITS).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.cacheStats().hitCount()));
+    meter.gaugeBuilder(GAUGE_EXPRESSION_CACHE_MISSES).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.cacheStats().missCount()));
+    meter.gaugeBuilder(GAUGE_EXPRESSION_CACHE_EVICTIONS).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.cacheStats().evictionCount()));
+    meter.gaugeBuilder(GAUGE_EXPRESSION_CACHE_SIZE).ofLongs()
+        .buildWithCallback(measurement -> measurement.record(ExpressionBuilder.cacheSize()));
+
+    // Observe the event deduplicator, if received events are deduplicated
+    meter.gaugeBuilder(GAUGE_EVENT_DEDUPLICATION_CHECKS).ofLongs()
+        .buildWithCallback(measurement -> eventHandler.getDeduplicator()
+            .map(EventDeduplicator::getChecks)
+            .ifPresent(measurement::record));
+    meter.gaugeBuilder(GAUGE_EVENT_DEDUPLICATION_HITS).ofLongs()
+        .buildWithCallback(measurement -> eventHandler.getDeduplicator()
+            .map(EventDeduplicator::getHits)
+            .ifPresent(measurement::record));
   }
 
   /**
@@ -115,9 +217,7 @@ public abstract class Runtime implements EventListener {
    * @return The state machine instance or an empty optional if no state machine instance was found for the given instance id.
    */
   public Optional<StateMachine> findInstance(Id stateMachineId) {
-    return stateMachines.stream()
-        .filter(stateMachineInstance -> stateMachineInstance.getStateMachineInstanceId().equals(stateMachineId))
-        .findFirst();
+    return Optional.ofNullable(stateMachines.get(stateMachineId));
   }
 
   /**
@@ -181,8 +281,13 @@ public abstract class Runtime implements EventListener {
         // Add to the collection of created state machine instance IDs
         instanceIds.addAll(nestedStateMachineIds);
 
-        // Provide the parent state machine with the IDs of its children
-        findInstance(instanceId).get().setNestedStateMachineIds(nestedStateMachineIds);
+        // Provide the parent state machine with direct references to its children
+        final var nestedStateMachines = nestedStateMachineIds.stream()
+            .map(nestedStateMachineId -> findInstance(nestedStateMachineId)
+                .orElseThrow(() -> new UnsupportedOperationException("Nested state machine could not be found")))
+            .toList();
+
+        findInstance(instanceId).get().setNestedStateMachines(nestedStateMachines);
       } catch (UnsupportedOperationException e) {
         throw new UnsupportedOperationException("Could not instantiate state machine", e);
       }
@@ -237,14 +342,21 @@ public abstract class Runtime implements EventListener {
         endTime
     );
 
-    // Add event listener to the event handler
-    eventHandler.addListener(stateMachineInstance);
+    // Add event listener to the event handler, only the events handled by the state machine instance are propagated to it
+    eventHandler.addListener(stateMachineInstance, stateMachineClass.getInputEvents());
+
+    // Subscribe to the events consumed by the state machine instance, if not yet subscribed to
+    subscribe(stateMachineClass.getInputEvents());
 
     // Add to the collection of state machine instances
-    stateMachines.add(stateMachineInstance);
+    stateMachines.put(stateMachineInstance.getStateMachineInstanceId(), stateMachineInstance);
 
-    // Execute
-    stateMachineInstanceExecutorService.submit(stateMachineInstance);
+    // Execute, either by scheduling the first step or on a dedicated thread
+    if (configuration.isStepping()) {
+      stateMachineInstance.schedule();
+    } else {
+      stateMachineInstanceExecutorService.submit(stateMachineInstance);
+    }
 
     final var stateMachineInstanceId = stateMachineInstance.getStateMachineInstanceId();
 
@@ -253,6 +365,19 @@ public abstract class Runtime implements EventListener {
     return stateMachineInstanceId;
   }
 
+  /**
+   * Schedules a step of a state machine instance, the step is executed by one of the scheduler worker threads.
+   * <p>
+   * A state machine instance must not be scheduled again before its pending step has been executed.
+   *
+   * @param stateMachine State machine instance to step.
+   */
+  public void schedule(StateMachine stateMachine) {
+    configuration.scheduler().schedule(stateMachine);
+
+    readyStateMachines.release();
+  }
+
   /**
    * Run to completion given the currently instantiated state machines.
    * <p>
@@ -300,13 +425,41 @@ public abstract class Runtime implements EventListener {
     return stateMachineInstanceExecutorService.isShutdown();
   }
 
+  /**
+   * Runs a scheduler worker, repeatedly stepping the state machine instance selected by the runtime scheduler.
+   * <p>
+   * The worker ends when this runtime is shut down and all state machine instances have stopped.
+   */
+  private void runSchedulerWorker() {
+    try {
+      while (!isShutdown() || !stateMachines.isEmpty()) {
+        if (!readyStateMachines.tryAcquire(SCHEDULER_POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)) {
+          continue;
+        }
+
+        configuration.scheduler().select().ifPresent(StateMachine::step);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   /**
    * Returns this runtime's extent.
    *
    * @return Extent.
    */
   public Extent getExtent() {
-    return new Extent(persistentContext);
+    return extent;
+  }
+
+  /**
+   * Returns this runtime's configuration.
+   *
+   * @return Runtime configuration.
+   */
+  public RuntimeConfiguration getConfiguration() {
+    return configuration;
   }
 
   /**
@@ -319,6 +472,61 @@ public abstract class Runtime implements EventListener {
   }
 
   public void remove(StateMachine stateMachine) {
-    stateMachines.remove(stateMachine);
+    if (!stateMachines.remove(stateMachine.getStateMachineInstanceId(), stateMachine)) {
+      return;
+    }
+
+    eventHandler.removeListener(stateMachine);
+
+    // Unsubscribe from the events no longer consumed by any state machine instance
+    unsubscribe(stateMachine.getStateMachineClass().getInputEvents());
+  }
+
+  /**
+   * Subscribes to global and peripheral events with the provided names, events are only subscribed to by the first consuming state machine
+   * instance.
+   *
+   * @param eventNames Names of the consumed events.
+   */
+  private void subscribe(Collection<String> eventNames) {
+    try {
+      subscriptionLock.lock();
+
+      for (final var eventName : Set.copyOf(eventNames)) {
+        if (subscriptionCounts.merge(eventName, 1, Integer::sum) == 1) {
+          eventHandler.subscribe(EventHandler.GLOBAL_SOURCE, eventName);
+          eventHandler.subscribe(EventHandler.PERIPHERAL_SOURCE, eventName);
+        }
+      }
+    } finally {
+      subscriptionLock.unlock();
+    }
+  }
+
+  /**
+   * Unsubscribes from global and peripheral events with the provided names, events are only unsubscribed from by the last consuming state
+   * machine instance.
+   *
+   * @param eventNames Names of the no longer consumed events.
+   */
+  private void unsubscribe(Collection<String> eventNames) {
+    try {
+      subscriptionLock.lock();
+
+      for (final var eventName : Set.copyOf(eventNames)) {
+        final var count = subscriptionCounts.getOrDefault(eventName, 0);
+
+        if (count > 1) {
+          subscriptionCounts.put(eventName, count - 1);
+        } else if (count == 1) {
+          subscriptionCounts.remove(eventName);
+
+          eventHandler.unsubscribe(EventHandler.GLOBAL_SOURCE, eventName);
+          eventHandler.unsubscribe(EventHandler.PERIPHERAL_SOURCE, eventName);
+        }
+      }
+    } finally {
+      subscriptionLock.unlock();
+    }
   }
 }
@@ -0,0 +1,109 @@
+package at.ac.uibk.dps.cirrina.runtime;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventQueue.OverflowPolicy;
+import at.ac.uibk.dps.cirrina.execution.scheduler.RoundRobinRuntimeScheduler;
+import at.ac.uibk.dps.cirrina.execution.scheduler.RuntimeScheduler;
+import java.util.Map;
+
+/**
+ * Runtime configuration, contains the options that affect how a runtime executes its state machine instances.
+ *
+ * @param virtualThreads           Whether state machine instances are executed on virtual threads instead of platform threads.
+ * @param schedulerThreads         Number of scheduler worker threads, zero executes every state machine instance on its own thread.
+ * @param scheduler                Runtime scheduler, selects the state machine instance to step next if scheduler worker threads are
+ *                                 used.
+ * @param eventQueueCapacity       Capacity of the event queue of every state machine instance.
+ * @param eventQueueOverflowPolicy Overflow policy of the event queue of every state machine instance.
+ * @param eventBatchSize           Maximum number of events a state machine instance takes from its event queue and handles at once.
+ * @param eventTtlsByName          Time to live in milliseconds by event name, applies to events without a time to live of their own.
+ * @param eventTtlsByChannel       Time to live in milliseconds by event channel, applies to events without a time to live of their own or
+ *                                 by event name.
+ */
+public record RuntimeConfiguration(
+    boolean virtualThreads,
+    int schedulerThreads,
+    RuntimeScheduler scheduler,
+    int eventQueueCapacity,
+    OverflowPolicy eventQueueOverflowPolicy,
+    int eventBatchSize,
+    Map<String, Long> eventTtlsByName,
+    Map<EventChannel, Long> eventTtlsByChannel
+) {
+
+  /**
+   * Initializes this runtime configuration.
+   *
+   * @throws IllegalArgumentException If the number of scheduler threads is negative.
+   * @throws IllegalArgumentException If the event queue capacity is not positive.
+   * @throws IllegalArgumentException If the event batch size is not positive.
+   * @throws IllegalArgumentException If a time to live is not positive.
+   */
+  public RuntimeConfiguration {
+    if (schedulerThreads < 0) {
+      throw new IllegalArgumentException("The number of scheduler threads cannot be negative");
+    }
+    if (eventQueueCapacity <= 0) {
+      throw new IllegalArgumentException("The event queue capacity must be positive");
+    }
+    if (eventBatchSize <= 0) {
+      throw new IllegalArgumentException("The event batch size must be positive");
+    }
+    if (eventTtlsByName.values().stream().anyMatch(ttl -> ttl <= 0)) {
+      throw new IllegalArgumentException("The event time to live by event name must be positive");
+    }
+    if (eventTtlsByChannel.values().stream().anyMatch(ttl -> ttl <= 0)) {
+      throw new IllegalArgumentException("The event time to live by event channel must be positive");
+    }
+
+    eventTtlsByName = Map.copyOf(eventTtlsByName);
+    eventTtlsByChannel = Map.copyOf(eventTtlsByChannel);
+  }
+
+  /**
+   * Returns the default runtime configuration.
+   * <p>
+   * By default, every state machine instance is executed on its own platform thread, event queues are effectively unbounded and events are
+   * handled in batches of at most 64 events. Events do not expire unless given a time to live of their own.
+   *
+   * @return Default runtime configuration.
+   */
+  public static RuntimeConfiguration defaults() {
+    return new RuntimeConfiguration(false, 0, new RoundRobinRuntimeScheduler(), Integer.MAX_VALUE, OverflowPolicy.BLOCK, 64, Map.of(),
+        Map.of());
+  }
+
+  /**
+   * Returns a flag that indicates if state machine instances are stepped by scheduler worker threads.
+   *
+   * @return True if stepping, otherwise false.
+   */
+  public boolean isStepping() {
+    return schedulerThreads > 0;
+  }
+
+  public RuntimeConfiguration withVirtualThreads(boolean virtualThreads) {
+    return new RuntimeConfiguration(virtualThreads, schedulerThreads, scheduler, eventQueueCapacity, eventQueueOverflowPolicy,
+        eventBatchSize, eventTtlsByName, eventTtlsByChannel);
+  }
+
+  public RuntimeConfiguration withScheduler(RuntimeScheduler scheduler, int schedulerThreads) {
+    return new RuntimeConfiguration(virtualThreads, schedulerThreads, scheduler, eventQueueCapacity, eventQueueOverflowPolicy,
+        eventBatchSize, eventTtlsByName, eventTtlsByChannel);
+  }
+
+  public RuntimeConfiguration withEventQueue(int eventQueueCapacity, OverflowPolicy eventQueueOverflowPolicy) {
+    return new RuntimeConfiguration(virtualThreads, schedulerThreads, scheduler, eventQueueCapacity, eventQueueOverflowPolicy,
+        eventBatchSize, eventTtlsByName, eventTtlsByChannel);
+  }
+
+  public RuntimeConfiguration withEventBatchSize(int eventBatchSize) {
+    return new RuntimeConfiguration(virtualThreads, schedulerThreads, scheduler, eventQueueCapacity, eventQueueOverflowPolicy,
+        eventBatchSize, eventTtlsByName, eventTtlsByChannel);
+  }
+
+  public RuntimeConfiguration withEventTtls(Map<String, Long> eventTtlsByName, Map<EventChannel, Long> eventTtlsByChannel) {
+    return new RuntimeConfiguration(virtualThreads, schedulerThreads, scheduler, eventQueueCapacity, eventQueueOverflowPolicy,
+        eventBatchSize, eventTtlsByName, eventTtlsByChannel);
+  }
+}
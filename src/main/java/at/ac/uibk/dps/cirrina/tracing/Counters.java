@@ -8,6 +8,7 @@ import io.opentelemetry.api.metrics.LongUpDownCounter;
 import io.opentelemetry.api.metrics.Meter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Counters {
 
@@ -17,16 +18,19 @@ public class Counters {
 
   private final String stateMachineId;
 
+  // Event attributes by event channel, built once per channel as these are recorded for every event
+  private final Map<String, Attributes> eventAttributes = new ConcurrentHashMap<>();
+
   public Counters(Meter meter, String stateMachineId) {
     this.meter = meter;
     this.stateMachineId = stateMachineId;
   }
 
   public Attributes attributesForEvent(String eventChannel) {
-    return Attributes.builder()
-        .put(COUNTER_ATTR_EVENT_CHANNEL, eventChannel)
+    return eventAttributes.computeIfAbsent(eventChannel, channel -> Attributes.builder()
+        .put(COUNTER_ATTR_EVENT_CHANNEL, channel)
         .put(ATTR_STATE_MACHINE_ID, stateMachineId)
-        .build();
+        .build());
   }
 
   public Attributes attributesForInvocation() {
@@ -12,6 +12,7 @@ import io.opentelemetry.api.metrics.DoubleGauge;
 import io.opentelemetry.api.metrics.Meter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Gauges {
 
@@ -21,6 +22,9 @@ public class Gauges {
 
   private final String stateMachineId;
 
+  // Event attributes by event channel, built once per channel as these are recorded for every event
+  private final Map<String, Attributes> eventAttributes = new ConcurrentHashMap<>();
+
   public Gauges(Meter meter, String stateMachineId) {
     this.meter = meter;
     this.stateMachineId = stateMachineId;
@@ -43,10 +47,10 @@ public class Gauges {
   }
 
   public Attributes attributesForEvent(String eventChannel) {
-    return Attributes.builder()
-        .put(GAUGE_ATTR_EVENT_CHANNEL, eventChannel)
+    return eventAttributes.computeIfAbsent(eventChannel, channel -> Attributes.builder()
+        .put(GAUGE_ATTR_EVENT_CHANNEL, channel)
         .put(ATTR_STATE_MACHINE_ID, stateMachineId)
-        .build();
+        .build());
   }
 
   public void addGauge(String name) {
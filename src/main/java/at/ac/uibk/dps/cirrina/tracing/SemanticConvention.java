@@ -5,6 +5,8 @@ public class SemanticConvention {
   // Counter names
   public static final String COUNTER_EVENTS_RECEIVED = "cirrina.events.received";
   public static final String COUNTER_EVENTS_HANDLED = "cirrina.events.handled";
+  public static final String COUNTER_EVENTS_DROPPED = "cirrina.events.dropped";
+  public static final String COUNTER_EVENTS_EXPIRED = "cirrina.events.expired";
 
   public static final String COUNTER_INVOCATIONS = "cirrina.invocations";
 
@@ -16,11 +18,24 @@ public class SemanticConvention {
   // Gauge names
   public static final String GAUGE_EVENT_RESPONSE_TIME_EXCLUSIVE = "cirrina.event.exclusive_response_time_ms";
   public static final String GAUGE_EVENT_RESPONSE_TIME_INCLUSIVE = "cirrina.event.inclusive_response_time_ms";
+  public static final String GAUGE_EVENT_QUEUE_DEPTH = "cirrina.event.queue_depth";
 
   public static final String GAUGE_ACTION_DATA_LATENCY = "cirrina.action.data_latency_ms";
   public static final String GAUGE_ACTION_INVOKE_LATENCY = "cirrina.action.invoke_latency_ms";
   public static final String GAUGE_ACTION_RAISE_LATENCY = "cirrina.action.raise_latency_ms";
 
+  public static final String GAUGE_EXPRESSION_CACHE_HITS = "cirrina.expression_cache.hits";
+  public static final String GAUGE_EXPRESSION_CACHE_MISSES = "cirrina.expression_cache.misses";
+  public static final String GAUGE_EXPRESSION_CACHE_EVICTIONS = "cirrina.expression_cache.evictions";
+  public static final String GAUGE_EXPRESSION_CACHE_SIZE = "cirrina.expression_cache.size";
+
+  public static final String GAUGE_EVENT_DEDUPLICATION_CHECKS = "cirrina.event_deduplication.checks";
+  public static final String GAUGE_EVENT_DEDUPLICATION_HITS = "cirrina.event_deduplication.hits";
+
+  public static final String GAUGE_PERIPHERAL_EVENT_RECEIVER_DATAGRAMS = "cirrina.peripheral_event_receiver.datagrams";
+  public static final String GAUGE_PERIPHERAL_EVENT_RECEIVER_EVENTS = "cirrina.peripheral_event_receiver.events";
+  public static final String GAUGE_PERIPHERAL_EVENT_RECEIVER_DISCARDED = "cirrina.peripheral_event_receiver.discarded";
+
   // Gauge attributes
   public static final String GAUGE_ATTR_EVENT_CHANNEL = "cirrina.event.channel";
 
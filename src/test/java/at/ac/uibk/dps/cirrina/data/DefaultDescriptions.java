@@ -944,6 +944,241 @@ public class DefaultDescriptions {
         }
       """;
 
+  public static String subscription = """
+        {
+          name: 'collaborativeStateMachine',
+          version: '0.1',
+          stateMachines: [
+            {
+              name: 'stateMachine1',
+              states: [
+                {
+                  name: 'a',
+                  initial: true,
+                  on: [
+                    {
+                      event: 'e1',
+                      target: 'b'
+                    },
+                    {
+                      event: 'e2',
+                      target: 'b'
+                    }
+                  ]
+                },
+                {
+                  name: 'b',
+                  terminal: true
+                }
+              ]
+            }
+          ]
+        }
+      """;
+
+  public static String internalEvents = """
+        {
+          name: 'collaborativeStateMachine',
+          version: '0.1',
+          stateMachines: [
+            {
+              name: 'stateMachine1',
+              states: [
+                {
+                  name: 'a',
+                  initial: true,
+                  on: [
+                    {
+                      event: 'e1',
+                      target: 'b',
+                      actions: [
+                        {
+                          type: 'raise',
+                          event: {
+                            name: 'e2',
+                            channel: 'global'
+                          }
+                        },
+                        {
+                          type: 'raise',
+                          event: {
+                            name: 'e3',
+                            channel: 'internal'
+                          }
+                        }
+                      ]
+                    }
+                  ]
+                },
+                {
+                  name: 'b',
+                  on: [
+                    {
+                      event: 'e3',
+                      target: 'c',
+                      actions: [
+                        {
+                          type: 'assign',
+                          variable: {
+                            name: 'v',
+                            value: '1'
+                          }
+                        }
+                      ]
+                    },
+                    {
+                      event: 'e2',
+                      target: 'c',
+                      actions: [
+                        {
+                          type: 'assign',
+                          variable: {
+                            name: 'v',
+                            value: '2'
+                          }
+                        }
+                      ]
+                    }
+                  ]
+                },
+                {
+                  name: 'c',
+                  terminal: true
+                }
+              ]
+            }
+          ]
+        }
+      """;
+
+  public static String eventTtl = """
+        {
+          name: 'collaborativeStateMachine',
+          version: '0.1',
+          stateMachines: [
+            {
+              name: 'stateMachine1',
+              states: [
+                {
+                  name: 'a',
+                  initial: true,
+                  on: [
+                    {
+                      event: 'e1',
+                      target: 'a',
+                      guards: [
+                        {
+                          expression: "v >= 0"
+                        }
+                      ],
+                      actions: [
+                        {
+                          type: 'assign',
+                          variable: {
+                            name: 'v',
+                            value: 'v + 1'
+                          }
+                        }
+                      ]
+                    },
+                    {
+                      event: 'e2',
+                      target: 'a',
+                      guards: [
+                        {
+                          expression: "v >= 0"
+                        }
+                      ],
+                      actions: [
+                        {
+                          type: 'assign',
+                          variable: {
+                            name: 'v',
+                            value: 'v + 1'
+                          }
+                        }
+                      ]
+                    },
+                    {
+                      event: 'e3',
+                      target: 'a',
+                      guards: [
+                        {
+                          expression: "v >= 0"
+                        }
+                      ],
+                      actions: [
+                        {
+                          type: 'assign',
+                          variable: {
+                            name: 'v',
+                            value: 'v + 1'
+                          }
+                        }
+                      ]
+                    },
+                    {
+                      event: 'e4',
+                      target: 'b'
+                    }
+                  ]
+                },
+                {
+                  name: 'b',
+                  terminal: true
+                }
+              ]
+            }
+          ]
+        }
+      """;
+
+  public static String corruptEventData = """
+        {
+          name: 'collaborativeStateMachine',
+          version: '0.1',
+          stateMachines: [
+            {
+              name: 'stateMachine1',
+              states: [
+                {
+                  name: 'a',
+                  initial: true,
+                  on: [
+                    {
+                      event: 'e1',
+                      target: 'a',
+                      guards: [
+                        {
+                          expression: "$x > 0"
+                        }
+                      ],
+                      actions: [
+                        {
+                          type: 'assign',
+                          variable: {
+                            name: 'v',
+                            value: 'v + $x'
+                          }
+                        }
+                      ]
+                    },
+                    {
+                      event: 'e2',
+                      target: 'b'
+                    }
+                  ]
+                },
+                {
+                  name: 'b',
+                  terminal: true
+                }
+              ]
+            }
+          ]
+        }
+      """;
+
   public static String serviceImplementationsDescription = """
         [
           {
@@ -2,6 +2,7 @@ package at.ac.uibk.dps.cirrina.execution.object.context;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
@@ -37,6 +38,19 @@ public abstract class ContextTest {
     }
   }
 
+  @Test
+  void testLookup() throws Exception {
+    try (var context = createContext()) {
+      assertSame(Context.ABSENT, context.lookup("testVar"));
+
+      assertDoesNotThrow(() -> context.create("testVar", 42));
+      assertEquals(42, context.lookup("testVar"));
+
+      assertDoesNotThrow(() -> context.delete("testVar"));
+      assertSame(Context.ABSENT, context.lookup("testVar"));
+    }
+  }
+
   @Test
   void testAssign() throws Exception {
     try (var context = createContext()) {
@@ -0,0 +1,126 @@
+package at.ac.uibk.dps.cirrina.execution.object.context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.tracing.Counters;
+import io.opentelemetry.api.OpenTelemetry;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class EventDataContextTest {
+
+  @Test
+  void testGetBoundVariable() {
+    final var context = new EventDataContext("$");
+
+    context.bind(List.of(new ContextVariable("a", 1), new ContextVariable("ab", 2)));
+
+    assertEquals(1, assertDoesNotThrow(() -> context.get("$a")));
+    assertEquals(2, assertDoesNotThrow(() -> context.get("$ab")));
+
+    // Only prefixed names resolve
+    assertThrows(IOException.class, () -> context.get("a"));
+    assertThrows(IOException.class, () -> context.get("$b"));
+  }
+
+  @Test
+  void testUnbind() {
+    final var context = new EventDataContext("$");
+
+    context.bind(List.of(new ContextVariable("a", 1)));
+    context.unbind();
+
+    assertThrows(IOException.class, () -> context.get("$a"));
+  }
+
+  @Test
+  void testReadOnly() {
+    final var context = new EventDataContext("$");
+
+    context.bind(List.of(new ContextVariable("a", 1)));
+
+    assertThrows(IOException.class, () -> context.create("$b", 1));
+    assertThrows(IOException.class, () -> context.assign("$a", 2));
+    assertThrows(IOException.class, () -> context.delete("$a"));
+  }
+
+  @Test
+  void testExtentResolvesEventDataFirst() {
+    final var local = new InMemoryContext(true);
+    final var context = new EventDataContext("$");
+
+    assertDoesNotThrow(() -> local.create("$a", 0));
+
+    final var extent = new Extent(local).extend(context);
+
+    context.bind(List.of(new ContextVariable("a", 1)));
+
+    assertEquals(1, extent.resolve("$a").get());
+
+    context.unbind();
+
+    assertEquals(0, extent.resolve("$a").get());
+  }
+
+  // Covers the per-event work of handling an event that triggers no transition: recording the event counter and binding and resolving
+  // the event data for guard evaluation. Handling an event that does trigger a transition additionally allocates the selected Transition
+  // and its Optional, and the action commands of the transition. Data recorded by the OpenTelemetry SDK is not covered, a no-op meter is
+  // used. These allocations are not covered by the target.
+  @Test
+  void testHandleEventWithoutAllocating() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+    final var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+
+    final var local = new InMemoryContext(true);
+    final var context = new EventDataContext("$");
+    final var extent = new Extent(local).extend(context);
+
+    final var data = List.of(new ContextVariable("a", 1), new ContextVariable("b", 2));
+
+    final var counters = new Counters(OpenTelemetry.noop().getMeter("test"), "stateMachine");
+    final var counter = "test.events.handled";
+
+    counters.addCounter(counter);
+
+    final var numEvents = 100_000;
+
+    // Counting a handled event, then binding and resolving its event data, as done when evaluating guards
+    final Runnable handleEvents = () -> {
+      for (int i = 0; i < numEvents; ++i) {
+        counters.getCounter(counter).add(1,
+            counters.attributesForEvent(
+                EventChannel.GLOBAL.toString()));
+
+        context.bind(data);
+
+        if (extent.lookup("$b") == Context.ABSENT) {
+          throw new AssertionError();
+        }
+
+        context.unbind();
+      }
+    };
+
+    handleEvents.run();
+
+    final var threadId = Thread.currentThread().threadId();
+    final var allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+
+    handleEvents.run();
+
+    final var bytesPerEvent = (double) (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / numEvents;
+
+    // Target is zero bytes per event, the margin only accounts for measuring itself
+    assertTrue(bytesPerEvent < 1.0, "Allocated %.2f bytes per event".formatted(bytesPerEvent));
+  }
+}
@@ -0,0 +1,76 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class EventDeduplicatorTest {
+
+  private static Event newEvent(String id) {
+    return new Event(id, "e", EventChannel.GLOBAL, List.of());
+  }
+
+  @Test
+  public void testDetectDuplicates() {
+    final var deduplicator = new EventDeduplicator(60_000, 1_000, 1e-6);
+
+    assertFalse(deduplicator.isDuplicate(newEvent("1")));
+    assertFalse(deduplicator.isDuplicate(newEvent("2")));
+    assertTrue(deduplicator.isDuplicate(newEvent("1")));
+    assertTrue(deduplicator.isDuplicate(newEvent("2")));
+    assertFalse(deduplicator.isDuplicate(newEvent("3")));
+
+    assertEquals(5, deduplicator.getChecks());
+    assertEquals(2, deduplicator.getHits());
+  }
+
+  @Test
+  public void testRememberPreviousGeneration() {
+    // Rotates after every two events, an ID is remembered for at least one more generation
+    final var deduplicator = new EventDeduplicator(60_000, 2, 1e-6);
+
+    assertFalse(deduplicator.isDuplicate(newEvent("1")));
+    assertFalse(deduplicator.isDuplicate(newEvent("2")));
+    assertFalse(deduplicator.isDuplicate(newEvent("3")));
+    assertTrue(deduplicator.isDuplicate(newEvent("1")));
+  }
+
+  @Test
+  public void testForgetAfterExpectedEvents() {
+    // Rotates after every two events, well within the window
+    final var deduplicator = new EventDeduplicator(60_000, 2, 1e-6);
+
+    assertFalse(deduplicator.isDuplicate(newEvent("1")));
+    assertFalse(deduplicator.isDuplicate(newEvent("2")));
+    assertFalse(deduplicator.isDuplicate(newEvent("3")));
+    assertFalse(deduplicator.isDuplicate(newEvent("4")));
+
+    // The generation of 1 and 2 is discarded once two more IDs were remembered, IDs of the previous generation are still remembered
+    assertFalse(deduplicator.isDuplicate(newEvent("1")));
+    assertTrue(deduplicator.isDuplicate(newEvent("4")));
+  }
+
+  @Test
+  public void testForgetAfterWindow() throws InterruptedException {
+    final var deduplicator = new EventDeduplicator(10, 1_000, 1e-6);
+
+    assertFalse(deduplicator.isDuplicate(newEvent("1")));
+
+    // Both generations are discarded after two windows
+    Thread.sleep(50);
+
+    assertFalse(deduplicator.isDuplicate(newEvent("1")));
+  }
+
+  @Test
+  public void testInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new EventDeduplicator(0, 1_000, 1e-6));
+    assertThrows(IllegalArgumentException.class, () -> new EventDeduplicator(1_000, 0, 1e-6));
+    assertThrows(IllegalArgumentException.class, () -> new EventDeduplicator(1_000, 1_000, 1.0));
+  }
+}
@@ -0,0 +1,268 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventQueue.OverflowPolicy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class EventHandlerTest {
+
+  private static EventHandler newEventHandler() {
+    return newEventHandler(0);
+  }
+
+  private static EventHandler newEventHandler(int deliveryThreads) {
+    return new EventHandler(deliveryThreads) {
+
+      @Override
+      public void close() {
+        shutdownDelivery();
+      }
+
+      @Override
+      public void sendEvent(Event event, String source) {
+        propagateEvent(event);
+      }
+
+      @Override
+      public void subscribe(String subject) {
+
+      }
+
+      @Override
+      public void unsubscribe(String subject) {
+
+      }
+
+      @Override
+      public void subscribe(String source, String subject) {
+
+      }
+
+      @Override
+      public void unsubscribe(String source, String subject) {
+
+      }
+    };
+  }
+
+  private static Event newEvent(String name) {
+    return new Event(name, EventChannel.EXTERNAL, List.of());
+  }
+
+  @Test
+  public void testPropagateToConsumingListeners() {
+    final var eventHandler = newEventHandler();
+
+    final var received1 = new ArrayList<String>();
+    final var received2 = new ArrayList<String>();
+    final var receivedAll = new ArrayList<String>();
+
+    eventHandler.addListener(event -> received1.add(event.getName()), List.of("e1", "e1"));
+    eventHandler.addListener(event -> received2.add(event.getName()), List.of("e1", "e2"));
+    eventHandler.addListener(event -> receivedAll.add(event.getName()));
+
+    eventHandler.sendEvent(newEvent("e1"), "");
+    eventHandler.sendEvent(newEvent("e2"), "");
+    eventHandler.sendEvent(newEvent("e3"), "");
+
+    assertEquals(List.of("e1"), received1);
+    assertEquals(List.of("e1", "e2"), received2);
+    assertEquals(List.of("e1", "e2", "e3"), receivedAll);
+  }
+
+  @Test
+  public void testRemoveListener() {
+    final var eventHandler = newEventHandler();
+
+    final var received = new ArrayList<String>();
+    final var rejected = new ArrayList<String>();
+
+    final EventListener listener = event -> received.add(event.getName());
+
+    eventHandler.addListener(listener, List.of("e1", "e2"));
+    eventHandler.addListener(event -> !rejected.add(event.getName()), List.of("e1"));
+
+    eventHandler.sendEvent(newEvent("e1"), "");
+
+    eventHandler.removeListener(listener);
+
+    eventHandler.sendEvent(newEvent("e1"), "");
+    eventHandler.sendEvent(newEvent("e2"), "");
+
+    // Removed explicitly, or removed after not accepting an event
+    assertEquals(List.of("e1"), received);
+    assertEquals(List.of("e1"), rejected);
+  }
+
+  @Test
+  public void testPropagateOnDeliveryThreads() throws InterruptedException {
+    final var eventHandler = newEventHandler(4);
+
+    final var numListeners = 50;
+    final var numEvents = 100;
+
+    final var latch = new CountDownLatch(numListeners * numEvents);
+    final var received = new ArrayList<List<String>>();
+
+    for (int i = 0; i < numListeners; ++i) {
+      final var receivedByListener = new ArrayList<String>();
+
+      received.add(receivedByListener);
+
+      eventHandler.addListener(event -> {
+        receivedByListener.add(event.getId());
+        latch.countDown();
+        return true;
+      }, List.of("e"));
+    }
+
+    final var expected = new ArrayList<String>();
+
+    for (int i = 0; i < numEvents; ++i) {
+      final var event = new Event(Integer.toString(i), "e", EventChannel.EXTERNAL, List.of());
+
+      expected.add(event.getId());
+
+      eventHandler.sendEvent(event, "");
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+    // Every listener receives all events, in order
+    for (final var receivedByListener : received) {
+      assertEquals(expected, receivedByListener);
+    }
+
+    eventHandler.close();
+  }
+
+  @Test
+  public void testDiscardLocallyPropagatedEvents() throws InterruptedException {
+    final var eventHandler = new LoopbackEventHandler();
+
+    final var latch = new CountDownLatch(1);
+    final var received = new CopyOnWriteArrayList<String>();
+
+    eventHandler.addListener(event -> {
+      received.add(event.getId());
+      latch.countDown();
+      return true;
+    }, List.of("e"));
+
+    final var sentEvent = newEvent("e");
+    final var remoteEvent = newEvent("e");
+
+    eventHandler.sendEvent(sentEvent, "");
+
+    // Propagated locally once, receiving the published event back is discarded
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(List.of(sentEvent.getId()), received);
+
+    eventHandler.published.forEach(eventHandler::receiveEvent);
+    eventHandler.receiveEvent(remoteEvent);
+
+    assertEquals(List.of(sentEvent.getId(), remoteEvent.getId()), received);
+
+    eventHandler.close();
+  }
+
+  @Test
+  public void testPropagateLocallyWithoutBlockingSender() throws InterruptedException {
+    final var eventHandler = new LoopbackEventHandler();
+
+    // The sender is the only consumer of its own full event queue, blocking the sender would deadlock
+    final var eventQueue = new EventQueue(1, OverflowPolicy.BLOCK, event -> {
+    });
+
+    eventHandler.addListener(event -> {
+      eventQueue.offer(event);
+      return true;
+    }, List.of("e"));
+
+    final var numEvents = 3;
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      for (int i = 0; i < numEvents; ++i) {
+        eventHandler.sendEvent(new Event(Integer.toString(i), "e", EventChannel.EXTERNAL, List.of()), "");
+      }
+    });
+
+    final var received = new ArrayList<String>();
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      while (received.size() < numEvents) {
+        final var event = eventQueue.poll();
+
+        if (event != null) {
+          received.add(event.getId());
+        } else {
+          Thread.onSpinWait();
+        }
+      }
+    });
+
+    assertEquals(List.of("0", "1", "2"), received);
+
+    eventHandler.close();
+  }
+
+  /**
+   * Event handler that propagates sent events locally and keeps them as published.
+   */
+  private static final class LoopbackEventHandler extends EventHandler {
+
+    private final List<Event> published = new ArrayList<>();
+
+    @Override
+    public void close() {
+      shutdownDelivery();
+    }
+
+    @Override
+    public void sendEvent(Event event, String source) {
+      final var isPropagatedLocally = markPropagatedLocally(event);
+
+      published.add(event);
+
+      if (isPropagatedLocally) {
+        propagateEventLocally(event);
+      }
+    }
+
+    @Override
+    public void subscribe(String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+
+    }
+
+    @Override
+    public void subscribe(String source, String subject) {
+
+    }
+
+    @Override
+    public void unsubscribe(String source, String subject) {
+
+    }
+
+    private void receiveEvent(Event event) {
+      if (!isPropagatedLocally(event)) {
+        propagateEvent(event);
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventQueue.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+public class EventQueueTest {
+
+  private static Event newEvent(String name) {
+    return new Event(name, EventChannel.EXTERNAL, List.of());
+  }
+
+  @Test
+  public void testWakeOnlyIfEmpty() {
+    final var eventQueue = new EventQueue(Integer.MAX_VALUE, OverflowPolicy.BLOCK, event -> {
+    });
+
+    assertTrue(eventQueue.offer(newEvent("e1")));
+    assertFalse(eventQueue.offer(newEvent("e2")));
+
+    assertEquals("e1", eventQueue.poll().getName());
+    assertEquals("e2", eventQueue.poll().getName());
+    assertNull(eventQueue.poll());
+
+    assertTrue(eventQueue.offer(newEvent("e3")));
+  }
+
+  @Test
+  public void testDrainTo() {
+    final var eventQueue = new EventQueue(Integer.MAX_VALUE, OverflowPolicy.BLOCK, event -> {
+    });
+
+    for (int i = 0; i < 5; ++i) {
+      eventQueue.offer(newEvent("e" + i));
+    }
+
+    final var batch = new ArrayList<Event>();
+
+    assertEquals(3, eventQueue.drainTo(batch, 3));
+    assertEquals(List.of("e0", "e1", "e2"), batch.stream().map(Event::getName).toList());
+    assertEquals(2, eventQueue.size());
+
+    batch.clear();
+
+    assertEquals(2, eventQueue.drainTo(batch, 3));
+    assertEquals(List.of("e3", "e4"), batch.stream().map(Event::getName).toList());
+    assertTrue(eventQueue.isEmpty());
+  }
+
+  @Test
+  public void testDropNewest() {
+    final var dropped = new ArrayList<String>();
+    final var eventQueue = new EventQueue(2, OverflowPolicy.DROP_NEWEST, event -> dropped.add(event.getName()));
+
+    eventQueue.offer(newEvent("e1"));
+    eventQueue.offer(newEvent("e2"));
+    eventQueue.offer(newEvent("e3"));
+
+    assertEquals(List.of("e3"), dropped);
+    assertEquals(2, eventQueue.size());
+    assertEquals("e1", eventQueue.poll().getName());
+  }
+
+  @Test
+  public void testDropOldest() {
+    final var dropped = new ArrayList<String>();
+    final var eventQueue = new EventQueue(2, OverflowPolicy.DROP_OLDEST, event -> dropped.add(event.getName()));
+
+    eventQueue.offer(newEvent("e1"));
+    eventQueue.offer(newEvent("e2"));
+    eventQueue.offer(newEvent("e3"));
+
+    assertEquals(List.of("e1"), dropped);
+    assertEquals(2, eventQueue.size());
+    assertEquals("e2", eventQueue.poll().getName());
+  }
+
+  @Test
+  public void testReject() {
+    final var dropped = new ArrayList<String>();
+    final var eventQueue = new EventQueue(1, OverflowPolicy.REJECT, event -> dropped.add(event.getName()));
+
+    eventQueue.offer(newEvent("e1"));
+
+    assertThrows(IllegalStateException.class, () -> eventQueue.offer(newEvent("e2")));
+    assertEquals(List.of("e2"), dropped);
+  }
+
+  @Test
+  public void testBlock() throws Exception {
+    final var eventQueue = new EventQueue(1, OverflowPolicy.BLOCK, event -> {
+    });
+
+    eventQueue.offer(newEvent("e1"));
+
+    // Internal events are never blocked
+    eventQueue.offer(new Event("i1", EventChannel.INTERNAL, List.of()));
+
+    final var blocked = CompletableFuture.runAsync(() -> eventQueue.offer(newEvent("e2")));
+
+    assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+
+    assertEquals("e1", eventQueue.poll().getName());
+    assertEquals("i1", eventQueue.poll().getName());
+
+    blocked.get(10, TimeUnit.SECONDS);
+
+    assertEquals("e2", eventQueue.poll().getName());
+  }
+}
@@ -3,6 +3,7 @@ package at.ac.uibk.dps.cirrina.execution.object.event;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import at.ac.uibk.dps.cirrina.csml.description.ExpressionDescription;
 import at.ac.uibk.dps.cirrina.csml.description.context.ContextVariableDescription;
@@ -10,11 +11,22 @@ import at.ac.uibk.dps.cirrina.csml.description.event.EventDescription;
 import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
 import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventBatchExchange;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import io.nats.client.Connection;
+import io.nats.client.impl.Headers;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 
 public class NatsEventHandlerTest {
 
@@ -179,4 +191,56 @@ public class NatsEventHandlerTest {
 
     natsEventHandler.close();
   }
+
+  @Test
+  public void testPublishBatchFailure() throws Exception {
+    final var failingSubjects = ConcurrentHashMap.<String>newKeySet();
+    final var published = new LinkedBlockingQueue<Map.Entry<String, List<String>>>();
+
+    // Records the IDs of the published events by subject, publishing to a failing subject fails as if the connection was closed
+    final Answer<Void> publish = invocation -> {
+      final String subject = invocation.getArgument(0);
+      final byte[] data = invocation.getArgument(invocation.getArguments().length - 1);
+
+      if (failingSubjects.contains(subject)) {
+        throw new IllegalStateException("Connection closed");
+      }
+
+      final var events = invocation.getArguments().length == 3
+          ? EventBatchExchange.eventsFromBytes(data)
+          : List.of(EventExchange.fromBytes(data).getEvent());
+
+      published.add(Map.entry(subject, events.stream().map(Event::getId).toList()));
+      return null;
+    };
+
+    final var connection = Mockito.mock(Connection.class);
+
+    Mockito.doAnswer(publish).when(connection).publish(Mockito.anyString(), Mockito.any(byte[].class));
+    Mockito.doAnswer(publish).when(connection).publish(Mockito.anyString(), Mockito.any(Headers.class), Mockito.any(byte[].class));
+
+    final var natsEventHandler = new NatsEventHandler(connection, new NatsEventHandler.Parameters(1, 0, 3, 10));
+
+    failingSubjects.add("a.e");
+
+    natsEventHandler.sendEvent(new Event("a1", "e", EventChannel.EXTERNAL, List.of()), "a");
+    natsEventHandler.sendEvent(new Event("a2", "e", EventChannel.EXTERNAL, List.of()), "a");
+
+    // The full batch could not be published, the last event is not sent and the events before it remain pending
+    assertThrows(IOException.class, () -> natsEventHandler.sendEvent(new Event("a3", "e", EventChannel.EXTERNAL, List.of()), "a"));
+
+    natsEventHandler.sendEvent(new Event("b1", "e", EventChannel.EXTERNAL, List.of()), "b");
+
+    // Pending batches are flushed independently, a failing subject does not prevent flushing others
+    assertEquals(Map.entry("b.e", List.of("b1")), published.poll(10, TimeUnit.SECONDS));
+
+    failingSubjects.clear();
+
+    // Pending events that could not be published are retried by the next flush
+    assertEquals(Map.entry("a.e", List.of("a1", "a2")), published.poll(10, TimeUnit.SECONDS));
+
+    natsEventHandler.close();
+
+    assertEquals(0, published.size());
+  }
 }
@@ -0,0 +1,105 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventBatchExchange;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventProtos;
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.CodedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class PeripheralEventReceiverTest {
+
+  @Test
+  public void testReceivePeripheralEvents() throws Exception {
+    try (final var eventHandler = new RingBufferEventHandler(RingBufferEventHandler.Parameters.defaults());
+        final var receiver = new PeripheralEventReceiver(eventHandler, new PeripheralEventReceiver.Parameters("127.0.0.1", 0, 65536));
+        final var sender = DatagramChannel.open()) {
+      final var latch = new CountDownLatch(2);
+      final var received = new CopyOnWriteArrayList<String>();
+
+      eventHandler.addListener(event -> {
+        received.add(event.getId());
+        latch.countDown();
+        return true;
+      }, List.of("e"));
+
+      // Events on other channels than the peripheral channel are discarded
+      final var batch = new EventBatchExchange(List.of(
+          new EventExchange(new Event("1", "e", EventChannel.PERIPHERAL, List.of())).toProto(),
+          new EventExchange(new Event("2", "e", EventChannel.GLOBAL, List.of())).toProto(),
+          new EventExchange(new Event("3", "e", EventChannel.PERIPHERAL, List.of())).toProto()
+      ));
+
+      sender.send(ByteBuffer.wrap(batch.toBytes()), receiver.getLocalAddress());
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+      assertEquals(List.of("1", "3"), received);
+      assertEquals(1, receiver.getReceivedDatagrams());
+      assertEquals(2, receiver.getReceivedEvents());
+      assertEquals(1, receiver.getDiscarded());
+    }
+  }
+
+  @Test
+  public void testDiscardMalformedEventData() throws Exception {
+    try (final var eventHandler = new RingBufferEventHandler(RingBufferEventHandler.Parameters.defaults());
+        final var receiver = new PeripheralEventReceiver(eventHandler, new PeripheralEventReceiver.Parameters("127.0.0.1", 0, 65536));
+        final var sender = DatagramChannel.open()) {
+      final var latch = new CountDownLatch(2);
+      final var received = new CopyOnWriteArrayList<String>();
+
+      eventHandler.addListener(event -> {
+        received.add(event.getId());
+        latch.countDown();
+        return true;
+      }, List.of("e"));
+
+      // Append an event data field that is not a valid context variable to the second event
+      final var corruptEvent = Bytes.concat(
+          new EventExchange(new Event("2", "e", EventChannel.PERIPHERAL, List.of(new ContextVariable("x", 1)))).toBytes(),
+          new byte[]{42, 2, (byte) 0xFF, (byte) 0xFF});
+
+      final var corruptBatch = new ByteArrayOutputStream();
+      final var output = CodedOutputStream.newInstance(corruptBatch);
+
+      output.writeByteArray(EventProtos.EventBatch.EVENTS_FIELD_NUMBER, corruptEvent);
+      output.flush();
+
+      // Serialized batches can be concatenated, the events are kept in order
+      final var batch = Bytes.concat(
+          new EventBatchExchange(List.of(new EventExchange(new Event("1", "e", EventChannel.PERIPHERAL, List.of())).toProto())).toBytes(),
+          corruptBatch.toByteArray(),
+          new EventBatchExchange(List.of(new EventExchange(new Event("3", "e", EventChannel.PERIPHERAL, List.of())).toProto())).toBytes());
+
+      sender.send(ByteBuffer.wrap(batch), receiver.getLocalAddress());
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+      // Only the event with malformed event data is discarded, the other events of the batch are injected
+      assertEquals(List.of("1", "3"), received);
+      assertEquals(1, receiver.getReceivedDatagrams());
+      assertEquals(2, receiver.getReceivedEvents());
+      assertEquals(1, receiver.getDiscarded());
+    }
+  }
+
+  @Test
+  public void testInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new PeripheralEventReceiver.Parameters("127.0.0.1", 65536, 65536));
+    assertThrows(IllegalArgumentException.class, () -> new PeripheralEventReceiver.Parameters("127.0.0.1", 0, 0));
+  }
+}
@@ -0,0 +1,131 @@
+package at.ac.uibk.dps.cirrina.execution.object.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.execution.object.event.RingBufferEventHandler.Parameters;
+import at.ac.uibk.dps.cirrina.execution.object.event.RingBufferEventHandler.WaitStrategy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class RingBufferEventHandlerTest {
+
+  @ParameterizedTest
+  @EnumSource(WaitStrategy.class)
+  public void testPropagateFromMultipleProducers(WaitStrategy waitStrategy) throws Exception {
+    final var numProducers = 4;
+    final var numEvents = 1000;
+
+    // A small capacity makes producers wrap around and wait for free slots
+    final var eventHandler = new RingBufferEventHandler(new Parameters(16, waitStrategy, 0));
+
+    final var latch = new CountDownLatch(numProducers * numEvents);
+    final var received = new ArrayList<String>();
+
+    eventHandler.addListener(event -> {
+      received.add(event.getId());
+      latch.countDown();
+      return true;
+    }, List.of("e"));
+
+    final var producers = new ArrayList<Thread>();
+    final var errors = new ConcurrentLinkedQueue<Exception>();
+
+    for (int i = 0; i < numProducers; ++i) {
+      final var producer = i;
+
+      producers.add(Thread.ofPlatform().start(() -> {
+        try {
+          for (int j = 0; j < numEvents; ++j) {
+            eventHandler.sendEvent(new Event("%d-%d".formatted(producer, j), "e", EventChannel.EXTERNAL, List.of()), "");
+          }
+        } catch (IOException e) {
+          errors.add(e);
+        }
+      }));
+    }
+
+    for (final var producer : producers) {
+      producer.join();
+    }
+
+    // Failures of the producers are only observed by the producer threads
+    assertTrue(errors.isEmpty(), () -> errors.toString());
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+    eventHandler.close();
+
+    // All events are received, the events of each producer in order
+    assertEquals(numProducers * numEvents, received.size());
+
+    for (int i = 0; i < numProducers; ++i) {
+      final var prefix = "%d-".formatted(i);
+      final var receivedByProducer = received.stream()
+          .filter(id -> id.startsWith(prefix))
+          .map(id -> Integer.parseInt(id.substring(prefix.length())))
+          .toList();
+
+      for (int j = 0; j < numEvents; ++j) {
+        assertEquals(j, receivedByProducer.get(j));
+      }
+    }
+
+    assertThrows(IOException.class, () -> eventHandler.sendEvent(new Event("e", EventChannel.EXTERNAL, List.of()), ""));
+  }
+
+  @ParameterizedTest
+  @EnumSource(WaitStrategy.class)
+  public void testCloseWhileSending(WaitStrategy waitStrategy) throws Exception {
+    final var numProducers = 4;
+
+    final var eventHandler = new RingBufferEventHandler(new Parameters(16, waitStrategy, 0));
+
+    final var received = new AtomicInteger();
+    final var sent = new AtomicInteger();
+
+    eventHandler.addListener(event -> {
+      received.incrementAndGet();
+      return true;
+    }, List.of("e"));
+
+    final var producers = new ArrayList<Thread>();
+
+    for (int i = 0; i < numProducers; ++i) {
+      producers.add(Thread.ofPlatform().start(() -> {
+        try {
+          while (true) {
+            eventHandler.sendEvent(new Event("e", EventChannel.EXTERNAL, List.of()), "");
+
+            sent.incrementAndGet();
+          }
+        } catch (IOException e) {
+          // Closed
+        }
+      }));
+    }
+
+    Thread.sleep(50);
+
+    eventHandler.close();
+
+    for (final var producer : producers) {
+      producer.join(10_000);
+
+      assertFalse(producer.isAlive());
+    }
+
+    // Every successfully sent event is propagated before closing completes, no event is lost
+    assertEquals(sent.get(), received.get());
+  }
+}
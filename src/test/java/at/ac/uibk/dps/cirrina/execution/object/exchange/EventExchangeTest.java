@@ -3,6 +3,7 @@ package at.ac.uibk.dps.cirrina.execution.object.exchange;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
 import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
@@ -30,4 +31,68 @@ public class EventExchangeTest {
       assertFalse(eventIn.getData().getFirst().isLazy());
     });
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testBatchToFromBytes() {
+    assertDoesNotThrow(() -> {
+      var eventsOut = List.of(
+          new Event("e1", EventChannel.EXTERNAL, List.of(new ContextVariable("varName", 1))),
+          new Event("e2", EventChannel.GLOBAL, List.of()));
+
+      var data = new EventBatchExchange(eventsOut.stream()
+          .map(event -> new EventExchange(event).toProto())
+          .toList())
+          .toBytes();
+
+      var eventsIn = EventBatchExchange.fromBytes(data).getEvents();
+
+      assertEquals(2, eventsIn.size());
+      assertEquals(eventsOut.get(0).getId(), eventsIn.get(0).getId());
+      assertEquals("e1", eventsIn.get(0).getName());
+      assertEquals(1, eventsIn.get(0).getData().getFirst().value());
+      assertEquals("e2", eventsIn.get(1).getName());
+      assertEquals("GLOBAL", eventsIn.get(1).getChannel().name());
+    });
+  }
+
+  @Test
+  public void testDecodeDataLazily() {
+    var eventOut = new Event("name", EventChannel.GLOBAL, List.of());
+    var header = new EventExchange(eventOut).toBytes();
+
+    // Append an event data field with a malformed context variable
+    var data = new byte[header.length + 4];
+
+    System.arraycopy(header, 0, data, 0, header.length);
+    data[header.length] = (EventProtos.Event.DATA_FIELD_NUMBER << 3) | 2;
+    data[header.length + 1] = 2;
+    data[header.length + 2] = (byte) 0xFF;
+    data[header.length + 3] = (byte) 0xFF;
+
+    // The header is decoded, the event data only once requested
+    var eventIn = assertDoesNotThrow(() -> EventExchange.fromBytes(data).getEvent());
+
+    assertEquals(eventOut.getId(), eventIn.getId());
+    assertEquals("name", eventIn.getName());
+    assertEquals("GLOBAL", eventIn.getChannel().name());
+    assertThrows(UnsupportedOperationException.class, eventIn::getData);
+
+    var eventsIn = assertDoesNotThrow(() -> EventBatchExchange.eventsFromBytes(
+        new EventBatchExchange(List.of(new EventExchange(eventOut).toProto())).toBytes()));
+
+    assertEquals(1, eventsIn.size());
+    assertEquals("name", eventsIn.getFirst().getName());
+    assertEquals(List.of(), eventsIn.getFirst().getData());
+  }
+
+  @Test
+  public void testTtlToFromBytes() {
+    var eventOut = new Event("name", EventChannel.GLOBAL, List.of(), 500);
+
+    var eventIn = assertDoesNotThrow(() -> EventExchange.fromBytes(new EventExchange(eventOut).toBytes()).getEvent());
+
+    assertEquals(500, eventIn.getTtlInMs());
+    assertEquals(eventOut.getCreatedTime(), eventIn.getCreatedTime());
+    assertEquals(0, EventExchange.fromProto(new EventExchange(new Event("name", EventChannel.GLOBAL, List.of())).toProto()).getTtlInMs());
+  }
+}
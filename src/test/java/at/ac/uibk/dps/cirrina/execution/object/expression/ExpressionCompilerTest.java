@@ -0,0 +1,128 @@
+package at.ac.uibk.dps.cirrina.execution.object.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.csml.description.ExpressionDescription;
+import at.ac.uibk.dps.cirrina.execution.object.context.Extent;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+public class ExpressionCompilerTest {
+
+  private static final List<String> COMPILED = List.of(
+      "1", "-1", "1.5", "'foo'", "\"foo\"", "true", "false",
+      "varInt", "$varEvent", "-varInt", "!varTrue",
+      "varInt + 1", "varInt - 1", "varInt * 3", "varInt / 2", "varInt % 2", "varInt / varNegative",
+      "varLong + 1", "varLong * varInt", "varMax + 1", "varMax * varMax", "varMin - 1", "-varMin",
+      "varDouble + 1", "varDouble / 2", "varInt / 0", "varDouble / 0", "varInt % 0",
+      "varString + 'bar'", "varString + 1", "varInt + varTrue",
+      "varInt == 5", "varInt != 5", "varInt == varLong", "varInt == 5.0", "varString == 'foo'", "varTrue == false",
+      "varInt < 6", "varInt <= 5", "varInt > varDouble", "varInt >= varLong", "varString < 'goo'",
+      "varTrue && varInt > 1", "varFalse || varInt < 1", "varFalse && varUndefined", "varTrue || varUndefined",
+      "varInt > 1 && varInt < 10 || varFalse", "(varInt + 1) * 2", "varInt + 1 * 2", "!(varInt == 5)",
+      "varInt && varTrue", "!varInt", "varUndefined + 1", "varDouble == varNaN", "varNaN < 1"
+  );
+
+  private static final List<String> NOT_COMPILED = List.of(
+      "math:abs(-1)", "varList.size()", "size(varList)", "varInt = 2", "let a = 1; a", "varInt ? 1 : 2", "varInt & 1", "1L", "0x10",
+      "010", "1e5", "1.5f", "'a\\'b'", "varInt =~ [1, 2]", "null", "varInt eq 5", "varString.length()"
+  );
+
+  private static Extent newExtent() throws Exception {
+    final var context = new InMemoryContext(true);
+
+    context.create("varInt", 5);
+    context.create("varNegative", -2);
+    context.create("varLong", 5L);
+    context.create("varMax", Integer.MAX_VALUE);
+    context.create("varMin", Long.MIN_VALUE);
+    context.create("varDouble", 2.5);
+    context.create("varNaN", Double.NaN);
+    context.create("varTrue", true);
+    context.create("varFalse", false);
+    context.create("varString", "foo");
+    context.create("varList", List.of(1, 2));
+    context.create("$varEvent", 7);
+
+    return new Extent(context);
+  }
+
+  @Test
+  public void testCompile() {
+    for (final var source : COMPILED) {
+      assertTrue(ExpressionCompiler.compile(source).isPresent(), source);
+    }
+    for (final var source : NOT_COMPILED) {
+      assertFalse(ExpressionCompiler.compile(source).isPresent(), source);
+    }
+  }
+
+  @Test
+  public void testEquivalence() throws Exception {
+    final var extent = newExtent();
+
+    for (final var source : COMPILED) {
+      final var jexlExpression = new JexlExpression(source);
+      final var compiledExpression = new CompiledExpression(ExpressionCompiler.compile(source).get(), jexlExpression);
+
+      Object expected;
+
+      try {
+        expected = jexlExpression.execute(extent);
+      } catch (UnsupportedOperationException e) {
+        assertThrows(UnsupportedOperationException.class, () -> compiledExpression.execute(extent), source);
+        continue;
+      }
+
+      final var actual = compiledExpression.execute(extent);
+
+      assertEquals(expected, actual, source);
+      assertEquals(expected.getClass(), actual.getClass(), source);
+    }
+  }
+
+  @Test
+  public void testBuildCompiles() {
+    final var expression = ExpressionBuilder.from(new ExpressionDescription("varInt > 1 && varInt < 10")).build();
+
+    assertInstanceOf(CompiledExpression.class, expression);
+  }
+
+  @Test
+  @Tag("benchmark")
+  public void testBenchmark() throws Exception {
+    final var extent = newExtent();
+    final var source = "varInt > 1 && varInt < 10 && varString == 'foo' || $varEvent * 2 == varLong";
+
+    final var jexlExpression = new JexlExpression(source);
+    final var compiledExpression = new CompiledExpression(ExpressionCompiler.compile(source).get(), jexlExpression);
+
+    final var iterations = 1_000_000;
+
+    // Each expression is run twice, the first run warms up
+    final var nanosPerEvaluation = new HashMap<Expression, Double>();
+
+    for (final var expression : List.of(jexlExpression, compiledExpression, jexlExpression, compiledExpression)) {
+      final var start = System.nanoTime();
+
+      for (int i = 0; i < iterations; ++i) {
+        expression.execute(extent);
+      }
+
+      nanosPerEvaluation.put(expression, (double) (System.nanoTime() - start) / iterations);
+    }
+
+    System.out.printf("%s: %.1f ns per evaluation, %s: %.1f ns per evaluation%n",
+        jexlExpression.getClass().getSimpleName(), nanosPerEvaluation.get(jexlExpression),
+        compiledExpression.getClass().getSimpleName(), nanosPerEvaluation.get(compiledExpression));
+
+    assertTrue(nanosPerEvaluation.get(compiledExpression) < nanosPerEvaluation.get(jexlExpression));
+  }
+}
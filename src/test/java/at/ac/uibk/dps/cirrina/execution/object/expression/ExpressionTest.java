@@ -3,6 +3,7 @@ package at.ac.uibk.dps.cirrina.execution.object.expression;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -90,6 +91,20 @@ public class ExpressionTest {
     }
   }
 
+  @Test
+  public void testExpressionCache() {
+    final var source = "1 + 2 + 3 + 4";
+
+    final var hitCount = ExpressionBuilder.cacheStats().hitCount();
+
+    final var first = ExpressionBuilder.from(new ExpressionDescription(source)).build();
+    final var second = ExpressionBuilder.from(new ExpressionDescription(source)).build();
+
+    assertSame(first, second);
+    assertTrue(ExpressionBuilder.cacheStats().hitCount() > hitCount);
+    assertTrue(ExpressionBuilder.cacheSize() > 0);
+  }
+
   @Test
   public void testExpressionNegative() throws Exception {
     try (var context = new InMemoryContext(true)) {
@@ -1,69 +1,38 @@
 package at.ac.uibk.dps.cirrina.execution.scheduler;
 
-public class RuntimeSchedulerRoundRobinTest {
-
-  /*@Test
-  public void testSelectEmpty() {
-    final var mockQueue = new ArrayList<StateMachineClass>();
-
-    final var scheduler = new RoundRobinRuntimeScheduler();
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
-    final var selectedStateMachineInstance = scheduler.select(mockQueue);
+import at.ac.uibk.dps.cirrina.execution.object.statemachine.StateMachine;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
-    assertEquals(Optional.empty(), selectedStateMachineInstance);
-  }
+public class RuntimeSchedulerRoundRobinTest {
 
   @Test
-  public void testSelectNoneExecutable() {
-    var instanceWithoutCommand = Mockito.mock(StateMachineClass.class);
-    Mockito.when(instanceWithoutCommand.canExecute()).thenReturn(false);
-
-    final var mockQueue = new ArrayList<StateMachineClass>();
-
-    mockQueue.add(instanceWithoutCommand); // 1
-    mockQueue.add(instanceWithoutCommand); // 2
-    mockQueue.add(instanceWithoutCommand); // 3
-    mockQueue.add(instanceWithoutCommand); // 4
-    mockQueue.add(instanceWithoutCommand); // 5
-
+  public void testSelectEmpty() {
     final var scheduler = new RoundRobinRuntimeScheduler();
 
-    final var selectedStateMachineInstance = scheduler.select(mockQueue);
-
-    assertEquals(Optional.empty(), selectedStateMachineInstance);
+    assertEquals(Optional.empty(), scheduler.select());
   }
 
   @Test
-  public void testSelectExecutable() {
-    var mockCommand = Mockito.mock(ActionCommand.class);
+  public void testSelectInOrder() {
+    final var first = Mockito.mock(StateMachine.class);
+    final var second = Mockito.mock(StateMachine.class);
 
-    var instancesWithCommand = IntStream.range(0, 3)
-        .mapToObj(i -> {
-          var instanceWithCommand = Mockito.mock(StateMachineClass.class);
-          Mockito.when(instanceWithCommand.canExecute()).thenReturn(true);
-          return instanceWithCommand;
-        })
-        .toArray(StateMachineClass[]::new);
-
-    var instanceWithoutCommand = Mockito.mock(StateMachineClass.class);
-    Mockito.when(instanceWithoutCommand.canExecute()).thenReturn(false);
-
-    final var mockQueue = new ArrayList<StateMachineClass>();
+    final var scheduler = new RoundRobinRuntimeScheduler();
 
-    mockQueue.add(instancesWithCommand[0]); // 1
-    mockQueue.add(instanceWithoutCommand); // 2
-    mockQueue.add(instancesWithCommand[1]); // 3
-    mockQueue.add(instanceWithoutCommand); // 4
-    mockQueue.add(instancesWithCommand[2]); // 5
+    scheduler.schedule(first);
+    scheduler.schedule(second);
 
-    var scheduler = new RoundRobinRuntimeScheduler();
+    assertEquals(Optional.of(first), scheduler.select());
 
-    var expected = IntStream.range(0, 3)
-        .mapToObj(i -> List.of(new StateMachineInstanceCommand(instancesWithCommand[i], mockCommand)))
-        .toList();
+    // A stepped instance that is ready again is queued behind the other ready instances
+    scheduler.schedule(first);
 
-    assertEquals(Optional.of(instancesWithCommand[0]), scheduler.select(mockQueue));
-    assertEquals(Optional.of(instancesWithCommand[1]), scheduler.select(mockQueue));
-    assertEquals(Optional.of(instancesWithCommand[2]), scheduler.select(mockQueue));
-  }*/
+    assertEquals(Optional.of(second), scheduler.select());
+    assertEquals(Optional.of(first), scheduler.select());
+    assertEquals(Optional.empty(), scheduler.select());
+  }
 }
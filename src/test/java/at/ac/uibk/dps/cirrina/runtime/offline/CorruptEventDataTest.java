@@ -0,0 +1,104 @@
+package at.ac.uibk.dps.cirrina.runtime.offline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
+import at.ac.uibk.dps.cirrina.execution.object.context.ContextVariable;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.object.exchange.EventExchange;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.primitives.Bytes;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class CorruptEventDataTest {
+
+  private static CollaborativeStateMachineClass collaborativeStateMachineClass;
+
+  @BeforeAll
+  public static void setUp() {
+    final var json = DefaultDescriptions.corruptEventData;
+
+    final var parser = new DescriptionParser<CollaborativeStateMachineDescription>(CollaborativeStateMachineDescription.class);
+    Assertions.assertDoesNotThrow(() -> {
+      collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(json)).build();
+    });
+  }
+
+  @Test
+  public void testDiscardCorruptEventData() {
+    Assertions.assertDoesNotThrow(() -> {
+      final var mockEventHandler = new EventHandler() {
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public void sendEvent(Event event, String source) {
+          propagateEvent(event);
+        }
+
+        @Override
+        public void subscribe(String topic) {
+
+        }
+
+        @Override
+        public void unsubscribe(String topic) {
+
+        }
+
+        @Override
+        public void subscribe(String source, String subject) {
+
+        }
+
+        @Override
+        public void unsubscribe(String source, String subject) {
+
+        }
+      };
+
+      final var mockPersistentContext = new InMemoryContext(true);
+
+      mockPersistentContext.create("v", 0);
+
+      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext);
+      final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
+
+      runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector);
+
+      // Append an event data field that is not a valid context variable, only the event headers are decoded on receipt
+      final var validBytes = new EventExchange(new Event("e1", EventChannel.GLOBAL, List.of(new ContextVariable("x", 1)))).toBytes();
+      final var corruptBytes = Bytes.concat(validBytes, new byte[]{42, 2, (byte) 0xFF, (byte) 0xFF});
+
+      final var corruptEvent = EventExchange.fromBytes(corruptBytes).getEvent();
+
+      assertThrows(UnsupportedOperationException.class, corruptEvent::getData);
+
+      // The corrupt event is discarded, the state machine instance keeps handling the events that follow
+      mockEventHandler.sendEvent(EventExchange.fromBytes(corruptBytes).getEvent(), "");
+      mockEventHandler.sendEvent(EventExchange.fromBytes(validBytes).getEvent(), "");
+      mockEventHandler.sendEvent(new Event("e2", EventChannel.GLOBAL, List.of()), "");
+
+      assertTrue(runtime.waitForCompletion(10000));
+
+      assertEquals(1, mockPersistentContext.get("v"));
+    });
+  }
+}
@@ -0,0 +1,172 @@
+package at.ac.uibk.dps.cirrina.runtime.offline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeConfiguration;
+import at.ac.uibk.dps.cirrina.tracing.SemanticConvention;
+import at.ac.uibk.dps.cirrina.utils.Time;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ArrayListMultimap;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class EventTtlTest {
+
+  private static CollaborativeStateMachineClass collaborativeStateMachineClass;
+
+  @BeforeAll
+  public static void setUp() {
+    final var json = DefaultDescriptions.eventTtl;
+
+    final var parser = new DescriptionParser<CollaborativeStateMachineDescription>(CollaborativeStateMachineDescription.class);
+    Assertions.assertDoesNotThrow(() -> {
+      collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(json)).build();
+    });
+  }
+
+  private static Event newAgedEvent(String name, long ttlInMs) {
+    // Created a second ago, as if the consumer was delayed
+    return new Event(Time.timeInMillisecondsSinceEpoch() - 1000, UUID.randomUUID().toString(), name, EventChannel.GLOBAL,
+        Suppliers.ofInstance(List.of()), ttlInMs);
+  }
+
+  @Test
+  public void testDropExpiredEvents() {
+    Assertions.assertDoesNotThrow(() -> {
+      final var mockEventHandler = new EventHandler() {
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public void sendEvent(Event event, String source) {
+          propagateEvent(event);
+        }
+
+        @Override
+        public void subscribe(String topic) {
+
+        }
+
+        @Override
+        public void unsubscribe(String topic) {
+
+        }
+
+        @Override
+        public void subscribe(String source, String subject) {
+
+        }
+
+        @Override
+        public void unsubscribe(String source, String subject) {
+
+        }
+      };
+
+      final var exportedMetrics = new CopyOnWriteArrayList<MetricData>();
+
+      final var metricExporter = new MetricExporter() {
+
+        @Override
+        public CompletableResultCode export(Collection<MetricData> metrics) {
+          exportedMetrics.addAll(metrics);
+          return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+          return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+          return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+          return AggregationTemporality.CUMULATIVE;
+        }
+      };
+
+      final var meterProvider = SdkMeterProvider.builder()
+          .registerMetricReader(PeriodicMetricReader.create(metricExporter))
+          .build();
+
+      final var openTelemetry = OpenTelemetrySdk.builder()
+          .setMeterProvider(meterProvider)
+          .build();
+
+      final var mockPersistentContext = new InMemoryContext(true);
+
+      mockPersistentContext.create("v", 0);
+
+      // Events named e1 expire after 100 ms, e2 after 10 s and all other global events after 100 ms
+      final var configuration = RuntimeConfiguration.defaults()
+          .withEventTtls(Map.of("e1", 100L, "e2", 10_000L), Map.of(EventChannel.GLOBAL, 100L));
+
+      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext, openTelemetry, configuration);
+      final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
+
+      runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector);
+
+      // The time to live of the event takes precedence over the time to live by name
+      mockEventHandler.sendEvent(newAgedEvent("e1", 10_000), "");
+      mockEventHandler.sendEvent(newAgedEvent("e1", 0), "");
+
+      // The time to live by name takes precedence over the time to live by channel
+      mockEventHandler.sendEvent(newAgedEvent("e2", 0), "");
+      mockEventHandler.sendEvent(newAgedEvent("e3", 0), "");
+
+      mockEventHandler.sendEvent(new Event("e4", EventChannel.EXTERNAL, List.of()), "");
+
+      assertTrue(runtime.waitForCompletion(10000));
+
+      // Expired events are dropped before their guards are evaluated, only the unexpired events increment v
+      assertEquals(2, mockPersistentContext.get("v"));
+
+      assertTrue(meterProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess());
+
+      final var expired = exportedMetrics.stream()
+          .filter(metric -> metric.getName().equals(SemanticConvention.COUNTER_EVENTS_EXPIRED))
+          .flatMap(metric -> metric.getLongSumData().getPoints().stream())
+          .mapToLong(LongPointData::getValue)
+          .sum();
+
+      assertEquals(2, expired);
+
+      meterProvider.close();
+    });
+  }
+}
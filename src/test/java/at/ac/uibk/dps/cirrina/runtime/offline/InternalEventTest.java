@@ -0,0 +1,102 @@
+package at.ac.uibk.dps.cirrina.runtime.offline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.csml.keyword.EventChannel;
+import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.scheduler.RoundRobinRuntimeScheduler;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeConfiguration;
+import com.google.common.collect.ArrayListMultimap;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class InternalEventTest {
+
+  private static CollaborativeStateMachineClass collaborativeStateMachineClass;
+
+  @BeforeAll
+  public static void setUp() {
+    final var json = DefaultDescriptions.internalEvents;
+
+    final var parser = new DescriptionParser<CollaborativeStateMachineDescription>(CollaborativeStateMachineDescription.class);
+    Assertions.assertDoesNotThrow(() -> {
+      collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(json)).build();
+    });
+  }
+
+  @Test
+  public void testInternalEventsBeforeQueuedEvents() {
+    runInternalEvents(RuntimeConfiguration.defaults());
+  }
+
+  @Test
+  public void testInternalEventsBeforeQueuedEventsStepping() {
+    runInternalEvents(RuntimeConfiguration.defaults()
+        .withScheduler(new RoundRobinRuntimeScheduler(), 2));
+  }
+
+  private void runInternalEvents(RuntimeConfiguration configuration) {
+    Assertions.assertDoesNotThrow(() -> {
+      final var mockEventHandler = new EventHandler() {
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public void sendEvent(Event event, String source) {
+          propagateEvent(event);
+        }
+
+        @Override
+        public void subscribe(String topic) {
+
+        }
+
+        @Override
+        public void unsubscribe(String topic) {
+
+        }
+
+        @Override
+        public void subscribe(String source, String subject) {
+
+        }
+
+        @Override
+        public void unsubscribe(String source, String subject) {
+
+        }
+      };
+
+      final var mockPersistentContext = new InMemoryContext(true);
+
+      mockPersistentContext.create("v", 0);
+
+      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext, configuration);
+      final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
+
+      runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector);
+
+      // The global event e2 is queued before the internal event e3 is raised, e3 is still handled first
+      mockEventHandler.sendEvent(new Event("e1", EventChannel.GLOBAL, List.of()), "");
+
+      assertTrue(runtime.waitForCompletion(10000));
+
+      assertEquals(1, mockPersistentContext.get("v"));
+    });
+  }
+}
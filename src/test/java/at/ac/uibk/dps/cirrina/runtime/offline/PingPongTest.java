@@ -11,9 +11,11 @@ import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
 import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
 import at.ac.uibk.dps.cirrina.execution.object.event.Event;
 import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.scheduler.RoundRobinRuntimeScheduler;
 import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
 import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
 import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeConfiguration;
 import com.google.common.collect.ArrayListMultimap;
 import java.io.IOException;
 import org.junit.jupiter.api.Assertions;
@@ -37,6 +39,16 @@ public class PingPongTest {
 
   @Test
   public void testPingPongExecute() {
+    runPingPong(RuntimeConfiguration.defaults());
+  }
+
+  @Test
+  public void testPingPongExecuteStepping() {
+    runPingPong(RuntimeConfiguration.defaults()
+        .withScheduler(new RoundRobinRuntimeScheduler(), 2));
+  }
+
+  private void runPingPong(RuntimeConfiguration configuration) {
     Assertions.assertDoesNotThrow(() -> {
       final var mockEventHandler = new EventHandler() {
 
@@ -92,7 +104,7 @@ public class PingPongTest {
 
       mockPersistentContext.create("v", 0);
 
-      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext);
+      final var runtime = new OfflineRuntime("runtime", mockEventHandler, mockPersistentContext, configuration);
       final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
 
       final var instances = runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector);
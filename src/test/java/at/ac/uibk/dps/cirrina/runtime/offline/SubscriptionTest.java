@@ -0,0 +1,114 @@
+package at.ac.uibk.dps.cirrina.runtime.offline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClass;
+import at.ac.uibk.dps.cirrina.classes.collaborativestatemachine.CollaborativeStateMachineClassBuilder;
+import at.ac.uibk.dps.cirrina.csml.description.CollaborativeStateMachineDescription;
+import at.ac.uibk.dps.cirrina.data.DefaultDescriptions;
+import at.ac.uibk.dps.cirrina.execution.object.context.InMemoryContext;
+import at.ac.uibk.dps.cirrina.execution.object.event.Event;
+import at.ac.uibk.dps.cirrina.execution.object.event.EventHandler;
+import at.ac.uibk.dps.cirrina.execution.service.OptimalServiceImplementationSelector;
+import at.ac.uibk.dps.cirrina.io.description.DescriptionParser;
+import at.ac.uibk.dps.cirrina.runtime.OfflineRuntime;
+import at.ac.uibk.dps.cirrina.runtime.RuntimeConfiguration;
+import at.ac.uibk.dps.cirrina.utils.Id;
+import com.google.common.collect.ArrayListMultimap;
+import java.util.ArrayList;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class SubscriptionTest {
+
+  private static final Set<String> SUBJECTS = Set.of("global.e1", "global.e2", "peripheral.e1", "peripheral.e2");
+
+  private static CollaborativeStateMachineClass collaborativeStateMachineClass;
+
+  @BeforeAll
+  public static void setUp() {
+    final var json = DefaultDescriptions.subscription;
+
+    final var parser = new DescriptionParser<CollaborativeStateMachineDescription>(CollaborativeStateMachineDescription.class);
+    Assertions.assertDoesNotThrow(() -> {
+      collaborativeStateMachineClass = CollaborativeStateMachineClassBuilder.from(parser.parse(json)).build();
+    });
+  }
+
+  @Test
+  public void testSubscribeToInputEvents() {
+    final var subscribed = new ArrayList<String>();
+    final var unsubscribed = new ArrayList<String>();
+
+    final var recordingEventHandler = new EventHandler() {
+
+      @Override
+      public void close() {
+
+      }
+
+      @Override
+      public void sendEvent(Event event, String source) {
+        propagateEvent(event);
+      }
+
+      @Override
+      public void subscribe(String topic) {
+        subscribed.add(topic);
+      }
+
+      @Override
+      public void unsubscribe(String topic) {
+        unsubscribed.add(topic);
+      }
+
+      @Override
+      public void subscribe(String source, String subject) {
+        subscribed.add("%s.%s".formatted(source, subject));
+      }
+
+      @Override
+      public void unsubscribe(String source, String subject) {
+        unsubscribed.add("%s.%s".formatted(source, subject));
+      }
+    };
+
+    // Instances are only removed explicitly, virtual threads do not keep the remaining instances alive
+    final var runtime = new OfflineRuntime("runtime", recordingEventHandler, new InMemoryContext(true),
+        RuntimeConfiguration.defaults().withVirtualThreads(true));
+    final var serviceImplementationSelector = new OptimalServiceImplementationSelector(ArrayListMultimap.create());
+
+    final var instances = new ArrayList<Id>();
+
+    instances.addAll(runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector));
+    instances.addAll(runtime.newInstance(collaborativeStateMachineClass, serviceImplementationSelector));
+
+    assertEquals(2, instances.size());
+
+    final var first = runtime.findInstance(instances.getFirst()).get();
+    final var last = runtime.findInstance(instances.getLast()).get();
+
+    // Each input event is subscribed to once, by the first instance consuming it
+    assertEquals(SUBJECTS.size(), subscribed.size());
+    assertEquals(SUBJECTS, Set.copyOf(subscribed));
+
+    // Still consumed by the remaining instance
+    runtime.remove(first);
+
+    assertTrue(unsubscribed.isEmpty());
+
+    // No longer consumed by any instance
+    runtime.remove(last);
+
+    assertEquals(SUBJECTS.size(), unsubscribed.size());
+    assertEquals(SUBJECTS, Set.copyOf(unsubscribed));
+
+    // Removing an instance again has no effect
+    runtime.remove(last);
+
+    assertEquals(SUBJECTS.size(), unsubscribed.size());
+  }
+}